@@ -8,11 +8,14 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.ValidationException;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -29,13 +32,14 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserId(Long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getAllBookingsByUserId(Long userId, State state, Integer from, Integer size,
+                                                         String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get("?state={state}&from={from}&size={size}" + cursorQuery(cursor, parameters), userId, parameters);
     }
 
     public ResponseEntity<Object> createBooking(BookItemRequestDto bookItemRequestDto, Long userId) {
@@ -47,6 +51,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookItemRequestDto);
     }
 
+    public ResponseEntity<Object> respondInBatch(List<BookingDecisionDto> decisions, Long userId) {
+        return patch("/owner/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> responseByOwner(Long bookingId, Long userId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
@@ -58,12 +66,30 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwnerId(Long ownerId, State state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getBookingCountsByUserId(Long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> getBookingCountsByOwnerId(Long ownerId) {
+        return get("/owner/counts", ownerId);
+    }
+
+    public ResponseEntity<Object> getAllBookingsByOwnerId(Long ownerId, State state, int from, int size,
+                                                          String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        ));
+        return get("/owner?state={state}&from={from}&size={size}" + cursorQuery(cursor, parameters), ownerId,
+                parameters);
+    }
+
+    private String cursorQuery(String cursor, Map<String, Object> parameters) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        parameters.put("cursor", cursor);
+        return "&cursor={cursor}";
     }
 }
@@ -4,12 +4,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.validator.ValuesAllowedConstraint;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static ru.practicum.shareit.Constant.HEADER_USER_ID;
 
@@ -43,6 +47,23 @@ public class BookingController {
         return bookingClient.responseByOwner(bookingId, userId, approved);
     }
 
+    @PatchMapping("/owner/batch")
+    public ResponseEntity<Object> respondInBatch(@RequestBody @NotEmpty @Size(max = 500)
+                                                 List<@Valid BookingDecisionDto> decisions,
+                                                 @RequestHeader(HEADER_USER_ID) Long userId) {
+        return bookingClient.respondInBatch(decisions, userId);
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<Object> getCountsByUser(@RequestHeader(HEADER_USER_ID) Long userId) {
+        return bookingClient.getBookingCountsByUserId(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> getCountsByOwner(@RequestHeader(HEADER_USER_ID) Long userId) {
+        return bookingClient.getBookingCountsByOwnerId(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getById(@PathVariable Long bookingId,
                                           @RequestHeader(HEADER_USER_ID) Long userId) {
@@ -57,16 +78,19 @@ public class BookingController {
                                                                "past",
                                                                "future",
                                                                "waiting",
-                                                               "rejected"},
+                                                               "rejected",
+                                                               "expired"},
                                                        message = "Unknown state: UNSUPPORTED_STATUS")
                                                @RequestParam(defaultValue = "all") String state,
                                                @RequestParam(defaultValue = "0") int from,
-                                               @RequestParam(defaultValue = "20") int size) {
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(required = false) String cursor) {
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Некорректный запрос.");
         }
 
-        return bookingClient.getAllBookingsByUserId(userId, State.valueOf(state.toUpperCase()), from, size);
+        return bookingClient.getAllBookingsByUserId(userId, State.valueOf(state.toUpperCase()), from, size,
+                cursor);
     }
 
     @GetMapping("/owner")
@@ -77,14 +101,17 @@ public class BookingController {
                                                                 "past",
                                                                 "future",
                                                                 "waiting",
-                                                                "rejected"},
+                                                                "rejected",
+                                                                "expired"},
                                                         message = "Unknown state: UNSUPPORTED_STATUS")
                                                 @RequestParam(defaultValue = "all") String state,
                                                 @RequestParam(defaultValue = "0") int from,
-                                                @RequestParam(defaultValue = "20") int size) {
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(required = false) String cursor) {
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Некорректный запрос.");
         }
-        return bookingClient.getAllBookingsByOwnerId(userId, State.valueOf(state.toUpperCase()), from, size);
+        return bookingClient.getAllBookingsByOwnerId(userId, State.valueOf(state.toUpperCase()), from, size,
+                cursor);
     }
 }
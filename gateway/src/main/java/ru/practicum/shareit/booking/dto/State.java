@@ -16,7 +16,9 @@ public enum State {
 	// Отклоненные
 	REJECTED,
 	// Ожидающие подтверждения
-	WAITING;
+	WAITING,
+	// Не подтвержденные до начала
+	EXPIRED;
 
 	public static Optional<State> from(String stringState) {
 		for (State state : values()) {
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,9 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -22,7 +26,7 @@ public class ItemClient extends BaseClient {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(ItemClient::streamingRequestFactory)
                         .build()
         );
     }
@@ -43,6 +47,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> importItems(InputStream body, MediaType contentType, Long userId) {
+        return postStream("/bulk", userId, contentType, body);
+    }
+
     public ResponseEntity<Object> updateItem(ItemDto itemDto, Long id, Long userId) {
         return patch("/" + id, userId, itemDto);
     }
@@ -60,7 +68,51 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
+    /**
+     * Передаёт на сервер только заданные фильтры.
+     */
+    public ResponseEntity<Object> searchFaceted(String text, Map<String, Object> filters, int from, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        ));
+        StringBuilder path = new StringBuilder("/search/faceted?text={text}&from={from}&size={size}");
+        filters.forEach((name, value) -> {
+            if (value != null) {
+                parameters.put(name, value);
+                path.append('&').append(name).append("={").append(name).append('}');
+            }
+        });
+        return get(path.toString(), null, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, int limit) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "limit", limit
+        );
+        return get("/suggest?prefix={prefix}&limit={limit}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long id, LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + id + "/availability?from={from}&to={to}", null, parameters);
+    }
+
     public ResponseEntity<Object> createComment(Long itemId, Long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    /**
+     * Тело импорта передаётся на сервер по мере чтения, а не накапливается в памяти шлюза.
+     */
+    private static HttpComponentsClientHttpRequestFactory streamingRequestFactory() {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+        factory.setBufferRequestBody(false);
+        return factory;
+    }
 }
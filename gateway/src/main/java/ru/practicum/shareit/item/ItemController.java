@@ -1,12 +1,20 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static ru.practicum.shareit.Constant.HEADER_USER_ID;
 
@@ -38,6 +46,13 @@ public class ItemController {
         return itemClient.createItem(itemDto, userId);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Object> importItems(InputStream body,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              @RequestHeader(HEADER_USER_ID) Long userId) {
+        return itemClient.importItems(body, contentType, userId);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Object> updateItem(@RequestBody ItemDto itemDto,
                                              @PathVariable Long id,
@@ -57,6 +72,46 @@ public class ItemController {
         return itemClient.search(text, from, size);
     }
 
+    @GetMapping("/search/faceted")
+    public ResponseEntity<Object> searchFaceted(@RequestParam String text,
+                                                @RequestParam(required = false) Long ownerId,
+                                                @RequestParam(required = false) Boolean hasRequest,
+                                                @RequestParam(required = false) Long requestId,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableFrom,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableTo,
+                                                @RequestParam(required = false) Boolean hasComments,
+                                                @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                @RequestParam(defaultValue = "20") @Min(1) int size) {
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new BadRequestException("Период доступности должен быть задан обеими датами.");
+        }
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("ownerId", ownerId);
+        filters.put("hasRequest", hasRequest);
+        filters.put("requestId", requestId);
+        filters.put("availableFrom", availableFrom);
+        filters.put("availableTo", availableTo);
+        filters.put("hasComments", hasComments);
+        return itemClient.searchFaceted(text, filters, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") @Min(1) int limit) {
+        return itemClient.suggest(prefix, limit);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long id,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                  LocalDate from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                  LocalDate to) {
+        return itemClient.getAvailability(id, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> createComment(@PathVariable Long itemId, @RequestHeader(HEADER_USER_ID) Long userId,
                                                 @Valid @RequestBody CommentDto commentDto) {
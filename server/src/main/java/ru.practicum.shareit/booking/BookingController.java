@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BadRequestException;
 
@@ -12,6 +17,7 @@ import java.util.List;
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
 
     public BookingController(BookingService bookingService) {
@@ -30,33 +36,69 @@ public class BookingController {
         return bookingService.responseByOwner(bookingId, userId, approved);
     }
 
+    @PatchMapping("/owner/batch")
+    public List<BookingDecisionResultDto> respondInBatch(@RequestBody List<BookingDecisionDto> decisions,
+                                                         @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.respondInBatch(userId, decisions);
+    }
+
+    @GetMapping("/counts")
+    public BookingCountsDto getCountsByUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getBookingCountsByUserId(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public BookingCountsDto getCountsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getBookingCountsByOwnerId(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getById(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
         return bookingService.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    public List<BookingDto> getAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(defaultValue = "ALL") String state,
-                                         @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<List<BookingListDto>> getAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(defaultValue = "ALL") String state,
+                                                         @RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @RequestParam(required = false) String cursor) {
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Некорректный запрос.");
         }
 
-        return bookingService.getAllBookingsByUserId(userId, state, from, size);
+        if (cursor != null && !cursor.isBlank()) {
+            return withNextCursor(bookingService.getAllBookingsByUserIdAfter(userId, state,
+                    BookingCursor.decode(cursor), size), size);
+        }
+        return withNextCursor(bookingService.getAllBookingsByUserId(userId, state, from, size), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @RequestParam(defaultValue = "ALL") String state,
-                                          @RequestParam(defaultValue = "0") int from,
-                                          @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<List<BookingListDto>> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                          @RequestParam(defaultValue = "0") int from,
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          @RequestParam(required = false) String cursor) {
 
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Некорректный запрос.");
         }
 
-        return bookingService.getAllBookingsByOwnerId(userId, state, from, size);
+        if (cursor != null && !cursor.isBlank()) {
+            return withNextCursor(bookingService.getAllBookingsByOwnerIdAfter(userId, state,
+                    BookingCursor.decode(cursor), size), size);
+        }
+        return withNextCursor(bookingService.getAllBookingsByOwnerId(userId, state, from, size), size);
+    }
+
+    private ResponseEntity<List<BookingListDto>> withNextCursor(List<BookingListDto> bookings, int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingListDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
@@ -2,7 +2,9 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 
 public class BookingMapper {
 
@@ -16,6 +18,17 @@ public class BookingMapper {
                 booking.getStatus());
     }
 
+    public BookingListDto toBookingListDto(Booking booking) {
+        return new BookingListDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                booking.getItem().getId(),
+                booking.getItem().getName(),
+                booking.getBooker().getId());
+    }
+
     public Booking toBooking(BookingCreationDto bookingCreationDto) {
         return new Booking(
                 bookingCreationDto.getId(),
@@ -31,4 +44,22 @@ public class BookingMapper {
                 booking.getItem().getId(),
                 booking.getBooker().getId());
     }
+
+    public BookingCreationDto toLastBookingDto(ItemBookingSummary summary) {
+        return new BookingCreationDto(
+                summary.getLastBookingId(),
+                summary.getLastBookingStart(),
+                summary.getLastBookingEnd(),
+                summary.getItemId(),
+                summary.getLastBookerId());
+    }
+
+    public BookingCreationDto toNextBookingDto(ItemBookingSummary summary) {
+        return new BookingCreationDto(
+                summary.getNextBookingId(),
+                summary.getNextBookingStart(),
+                summary.getNextBookingEnd(),
+                summary.getItemId(),
+                summary.getNextBookerId());
+    }
 }
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.cache.EpochLruCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * LRU-кэш счётчиков броней по ключу (роль, пользователь). Изменение брони вытесняет счётчики арендатора
+ * и владельца; вытеснение повторяется после завершения транзакции, а счётчики, посчитанные до вытеснения,
+ * в кэш не попадают (см. {@link EpochLruCache}). Счётчики текущих, будущих и прошедших броней меняются
+ * и без изменений броней, поэтому срок жизни записи короткий.
+ */
+@Component
+public class BookingCountsCache {
+    private final EpochLruCache<Key, BookingCountsDto> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public BookingCountsCache(MeterRegistry meterRegistry,
+                              @Value("${shareit.booking-counts.cache.max-size:10000}") int maxSize,
+                              @Value("${shareit.booking-counts.cache.ttl:PT1M}") Duration ttl) {
+        this.entries = new EpochLruCache<>(maxSize, ttl, () -> { });
+        this.hitCounter = Counter.builder("shareit.booking-counts.cache.hits")
+                .description("Запросы счётчиков броней, найденные в кэше")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("shareit.booking-counts.cache.misses")
+                .description("Запросы счётчиков броней, которых не было в кэше")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking-counts.cache.size", this, BookingCountsCache::size)
+                .description("Текущее количество записей в кэше счётчиков броней")
+                .register(meterRegistry);
+    }
+
+    public BookingCountsDto get(Role role, Long userId) {
+        BookingCountsDto counts = entries.get(new Key(role, userId));
+        (counts == null ? missCounter : hitCounter).increment();
+        return counts;
+    }
+
+    /**
+     * Кладёт счётчики, посчитанные после промаха в {@link #get}. Если с тех пор кэш вытеснялся,
+     * счётчики могли устареть и не сохраняются.
+     */
+    public void put(Role role, Long userId, BookingCountsDto counts) {
+        entries.put(new Key(role, userId), counts);
+    }
+
+    /**
+     * Вытесняет счётчики пользователя в обеих ролях. Пустые id пропускаются.
+     */
+    public void invalidate(Long... userIds) {
+        List<Key> keys = Stream.of(userIds)
+                .filter(Objects::nonNull)
+                .distinct()
+                .flatMap(userId -> Stream.of(Role.values()).map(role -> new Key(role, userId)))
+                .collect(Collectors.toList());
+        entries.removeAll(keys);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.removeAll(keys);
+                }
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает кэш целиком, когда затронутые пользователи неизвестны без лишних запросов.
+     */
+    public void invalidateAll() {
+        entries.clear();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.clear();
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final Role role;
+        private final Long userId;
+
+        private Key(Role role, Long userId) {
+            this.role = role;
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.Status;
+
+import java.util.List;
+
+/**
+ * Итог решения по одной брони: новый статус или причина отказа вместе с текущим статусом, если бронь
+ * принадлежит владельцу.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+
+    private Status status;
+
+    private String error;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> rejectedBookingIds;
+
+    public BookingDecisionResultDto(Long bookingId, Status status, String error) {
+        this(bookingId, status, error, null);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.item.model.Item;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.user.model.User;
 import javax.validation.constraints.Future;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Setter
 @Getter
@@ -30,4 +32,15 @@ public class BookingDto {
     private User booker;
 
     private Status status;
+
+    /**
+     * Ожидающие брони, отклонённые вместе с подтверждением этой. Заполняется только в режиме
+     * автоматического отклонения пересечений.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> rejectedBookingIds;
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, Status status) {
+        this(id, start, end, item, booker, status, null);
+    }
 }
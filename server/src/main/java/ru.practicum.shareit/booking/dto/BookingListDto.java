@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование в списках: предмет и арендатор представлены только своими id и названием, поэтому
+ * размер строки не зависит от того, какие связи есть у сущностей.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class BookingListDto {
+    private Long id;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private ItemRef item;
+
+    private BookerRef booker;
+
+    private Status status;
+
+    /**
+     * Конструктор для проекции в запросе.
+     */
+    public BookingListDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                          Long itemId, String itemName, Long bookerId) {
+        this(id, start, end, new ItemRef(itemId, itemName), new BookerRef(bookerId), status);
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class ItemRef {
+        private Long id;
+
+        private String name;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class BookerRef {
+        private Long id;
+    }
+}
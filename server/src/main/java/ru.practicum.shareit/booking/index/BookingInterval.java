@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+
+public interface BookingInterval {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.index;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Индекс активных (WAITING и APPROVED) бронирований по предметам: дерево интервалов для проверки
+ * пересечений и битовая карта занятых дней для календаря доступности. Данные предмета загружаются
+ * из базы при первом обращении и дальше поддерживаются при создании, подтверждении и отклонении брони.
+ * При откате транзакции данные предмета сбрасываются и будут перечитаны заново.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    public Long findConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return intervals(itemId).findOverlap(start, end);
+    }
+
+    public List<DayRange> findFreeDays(Long itemId, LocalDate from, LocalDate to) {
+        return intervals(itemId).freeDays(from, to);
+    }
+
+    public void add(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        intervals(itemId).add(booking.getId(), booking.getStart(), booking.getEnd());
+        evictOnRollback(itemId);
+    }
+
+    public void remove(Booking booking) {
+        remove(booking.getItem().getId(), booking.getId());
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        ItemIntervals loaded = items.get(itemId);
+        if (loaded != null) {
+            loaded.remove(bookingId);
+            evictOnRollback(itemId);
+        }
+    }
+
+    public void evict(Long itemId) {
+        items.remove(itemId);
+    }
+
+    /**
+     * Сбрасывает данные предметов, чьи брони удаляются в обход индекса, например каскадом вместе
+     * с пользователем. Сброс выполняется после завершения транзакции, иначе параллельный запрос
+     * успел бы перечитать ещё не удалённые брони.
+     */
+    public void evictAfterCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemIds.forEach(this::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                itemIds.forEach(BookingIntervalIndex.this::evict);
+            }
+        });
+    }
+
+    private ItemIntervals intervals(Long itemId) {
+        return items.computeIfAbsent(itemId, this::load);
+    }
+
+    private ItemIntervals load(Long itemId) {
+        ItemIntervals intervals = new ItemIntervals();
+        for (BookingInterval interval : bookingRepository.findAllByItemIdAndStatusIn(itemId, ACTIVE_STATUSES)) {
+            intervals.add(interval.getId(), interval.getStart(), interval.getEnd());
+        }
+        return intervals;
+    }
+
+    private void evictOnRollback(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    evict(itemId);
+                }
+            }
+        });
+    }
+
+    private static final class ItemIntervals {
+        private final IntervalTree tree = new IntervalTree();
+        private final DayBitmap bookedDays = new DayBitmap();
+        private final Map<Long, LocalDateTime> startById = new HashMap<>();
+        private final Map<Long, LocalDateTime> endById = new HashMap<>();
+
+        private synchronized Long findOverlap(LocalDateTime start, LocalDateTime end) {
+            return tree.findOverlap(start, end);
+        }
+
+        private synchronized List<DayRange> freeDays(LocalDate from, LocalDate to) {
+            return bookedDays.freeRanges(from, to);
+        }
+
+        private synchronized void add(Long id, LocalDateTime start, LocalDateTime end) {
+            if (startById.putIfAbsent(id, start) == null) {
+                endById.put(id, end);
+                tree.insert(id, start, end);
+                bookedDays.set(firstDay(start), lastDay(end));
+            }
+        }
+
+        private synchronized void remove(Long id) {
+            LocalDateTime start = startById.remove(id);
+            if (start != null) {
+                LocalDateTime end = endById.remove(id);
+                tree.remove(id, start);
+                releaseDays(firstDay(start), lastDay(end));
+            }
+        }
+
+        private void releaseDays(LocalDate from, LocalDate to) {
+            bookedDays.clear(from, to);
+            // Соседние брони могут делить с удалённой первый или последний день.
+            for (Long id : tree.findOverlaps(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                bookedDays.set(firstDay(startById.get(id)), lastDay(endById.get(id)));
+            }
+        }
+
+        private static LocalDate firstDay(LocalDateTime start) {
+            return start.toLocalDate();
+        }
+
+        private static LocalDate lastDay(LocalDateTime end) {
+            return end.minusNanos(1).toLocalDate();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Битовая карта занятых дней предмета, разбитая на слова по 64 дня (ключ — номер слова от эпохи).
+ * Хранятся только слова с занятыми днями, поэтому память зависит от числа занятых дней, а не от
+ * расстояния между самой ранней и самой поздней бронью.
+ */
+public class DayBitmap {
+    private static final int WORD_DAYS = Long.SIZE;
+
+    private final TreeMap<Long, Long> words = new TreeMap<>();
+
+    public void set(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        for (long word = wordOf(first); word <= wordOf(last); word++) {
+            long mask = mask(word, first, last);
+            words.merge(word, mask, (bits, added) -> bits | added);
+        }
+    }
+
+    public void clear(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        if (words.isEmpty() || first > last) {
+            return;
+        }
+        Long word = words.ceilingKey(wordOf(first));
+        while (word != null && word <= wordOf(last)) {
+            long bits = words.get(word) & ~mask(word, first, last);
+            if (bits == 0) {
+                words.remove(word);
+            } else {
+                words.put(word, bits);
+            }
+            word = words.higherKey(word);
+        }
+    }
+
+    public boolean isBooked(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        Long bits = words.get(wordOf(epochDay));
+        return bits != null && (bits & (1L << bitOf(epochDay))) != 0;
+    }
+
+    /**
+     * Возвращает непрерывные отрезки свободных дней внутри [from, to] включительно.
+     */
+    public List<DayRange> freeRanges(LocalDate from, LocalDate to) {
+        List<DayRange> ranges = new ArrayList<>();
+        long last = to.toEpochDay();
+        long day = from.toEpochDay();
+        while (day <= last) {
+            long booked = nextBooked(day);
+            long freeEnd = Math.min(booked - 1, last);
+            if (freeEnd >= day) {
+                ranges.add(new DayRange(LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(freeEnd)));
+            }
+            if (booked > last) {
+                break;
+            }
+            day = nextFree(booked);
+        }
+        return ranges;
+    }
+
+    private long nextBooked(long day) {
+        long word = wordOf(day);
+        Long bits = words.get(word);
+        if (bits != null) {
+            long masked = bits & (-1L << bitOf(day));
+            if (masked != 0) {
+                return word * WORD_DAYS + Long.numberOfTrailingZeros(masked);
+            }
+        }
+        Map.Entry<Long, Long> next = words.higherEntry(word);
+        return next == null ? Long.MAX_VALUE : next.getKey() * WORD_DAYS + Long.numberOfTrailingZeros(next.getValue());
+    }
+
+    private long nextFree(long day) {
+        long word = wordOf(day);
+        long free = ~words.getOrDefault(word, 0L) & (-1L << bitOf(day));
+        while (free == 0) {
+            word++;
+            free = ~words.getOrDefault(word, 0L);
+        }
+        return word * WORD_DAYS + Long.numberOfTrailingZeros(free);
+    }
+
+    /**
+     * Биты слова word, попадающие в [first, last].
+     */
+    private static long mask(long word, long first, long last) {
+        int low = word == wordOf(first) ? bitOf(first) : 0;
+        int high = word == wordOf(last) ? bitOf(last) : WORD_DAYS - 1;
+        return (-1L << low) & (-1L >>> (WORD_DAYS - 1 - high));
+    }
+
+    private static long wordOf(long epochDay) {
+        return Math.floorDiv(epochDay, WORD_DAYS);
+    }
+
+    private static int bitOf(long epochDay) {
+        return (int) Math.floorMod(epochDay, WORD_DAYS);
+    }
+}
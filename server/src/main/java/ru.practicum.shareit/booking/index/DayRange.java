@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class DayRange {
+    private final LocalDate from;
+    private final LocalDate to;
+}
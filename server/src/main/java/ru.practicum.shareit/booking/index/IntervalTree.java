@@ -0,0 +1,192 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сбалансированное (AVL) дерево интервалов [start, end), упорядоченное по началу интервала.
+ * Каждый узел хранит максимальную дату окончания в своём поддереве, что позволяет находить
+ * пересечение за O(log n).
+ */
+public class IntervalTree {
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(id, start, end));
+        size++;
+    }
+
+    public boolean remove(long id, LocalDateTime start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    /**
+     * Возвращает id любого интервала, пересекающегося с [start, end), или null, если таких нет.
+     */
+    public Long findOverlap(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return node.id;
+            }
+            if (node.left != null && node.left.max.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Возвращает id всех интервалов, пересекающихся с [start, end). Поддеревья, максимум окончаний которых
+     * не позже start, не обходятся.
+     */
+    public List<Long> findOverlaps(LocalDateTime start, LocalDateTime end) {
+        List<Long> ids = new ArrayList<>();
+        collectOverlaps(root, start, end, ids);
+        return ids;
+    }
+
+    private static void collectOverlaps(Node node, LocalDateTime start, LocalDateTime end, List<Long> ids) {
+        if (node == null || !node.max.isAfter(start)) {
+            return;
+        }
+        collectOverlaps(node.left, start, end, ids);
+        if (node.start.isBefore(end)) {
+            if (start.isBefore(node.end)) {
+                ids.add(node.id);
+            }
+            collectOverlaps(node.right, start, end, ids);
+        }
+    }
+
+    private static int compare(Node node, long id, LocalDateTime start) {
+        int result = start.compareTo(node.start);
+        return result != 0 ? result : Long.compare(id, node.id);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(node, added.id, added.start) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(node, id, start);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.max = node.end;
+        if (node.left != null && node.left.max.isAfter(node.max)) {
+            node.max = node.left.max;
+        }
+        if (node.right != null && node.right.max.isAfter(node.max)) {
+            node.max = node.right.max;
+        }
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime max;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.max = end;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.Collection;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по item_id. Брони одного предмета создаются строго по очереди, брони
+ * разных предметов — параллельно, пока предметы не попадают в одну полосу. Блокировка берётся
+ * внутри транзакции и отпускается только после её завершения, поэтому следующий поток видит
+ * уже зафиксированное состояние.
+ */
+@Component
+public class ItemLockManager {
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    private final Counter contendedCounter;
+    private final Counter timeoutCounter;
+
+    public ItemLockManager(MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.lock.stripes:64}") int stripes,
+                           @Value("${shareit.booking.lock.timeout-ms:2000}") long timeoutMillis) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Количество полос блокировок должно быть положительным.");
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("shareit.booking.lock.wait")
+                .description("Время ожидания блокировки предмета при создании брони")
+                .register(meterRegistry);
+        this.contendedCounter = Counter.builder("shareit.booking.lock.contended")
+                .description("Сколько раз блокировка предмета была занята другим потоком")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("shareit.booking.lock.timeouts")
+                .description("Сколько раз не удалось дождаться блокировки предмета")
+                .register(meterRegistry);
+    }
+
+    public void lockUntilTransactionEnds(Long itemId) {
+        requireTransaction();
+        lock(stripeIndex(itemId), itemId);
+    }
+
+    /**
+     * Блокирует сразу несколько предметов. Полосы берутся по возрастанию номера, каждая один раз:
+     * две пачки с общими полосами ждут друг друга, но не взаимно.
+     */
+    public void lockAllUntilTransactionEnds(Collection<Long> itemIds) {
+        requireTransaction();
+        NavigableMap<Integer, Long> itemsByStripe = new TreeMap<>();
+        itemIds.forEach(itemId -> itemsByStripe.putIfAbsent(stripeIndex(itemId), itemId));
+        itemsByStripe.forEach(this::lock);
+    }
+
+    private void lock(int stripe, Long itemId) {
+        ReentrantLock lock = stripes[stripe];
+        long started = System.nanoTime();
+        boolean acquired = lock.tryLock();
+        if (!acquired) {
+            contendedCounter.increment();
+            try {
+                acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            timeoutCounter.increment();
+            throw new ConflictException("Предмет с ID " + itemId + " сейчас бронируют другие пользователи. " +
+                    "Повторите попытку позже.");
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка предмета доступна только внутри транзакции.");
+        }
+    }
+
+    private int stripeIndex(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), stripes.length);
+    }
+}
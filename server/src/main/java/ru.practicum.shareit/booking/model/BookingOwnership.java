@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронь с владельцем предмета — всё, что нужно для проверки решения владельца без загрузки сущностей.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingOwnership {
+
+    private final Long id;
+
+    private final Long itemId;
+
+    private final Long ownerId;
+
+    private final Long bookerId;
+
+    private final Status status;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+
+    @Column(name = "next_booking_end")
+    private LocalDateTime nextBookingEnd;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "total_bookings", nullable = false)
+    private long totalBookings;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ItemBookingSummary(Long itemId, LocalDateTime updatedAt) {
+        this.itemId = itemId;
+        this.updatedAt = updatedAt;
+    }
+
+    public void setLastBooking(Long id, LocalDateTime start, LocalDateTime end, Long bookerId) {
+        this.lastBookingId = id;
+        this.lastBookingStart = start;
+        this.lastBookingEnd = end;
+        this.lastBookerId = bookerId;
+    }
+
+    public void setNextBooking(Long id, LocalDateTime start, LocalDateTime end, Long bookerId) {
+        this.nextBookingId = id;
+        this.nextBookingStart = start;
+        this.nextBookingEnd = end;
+        this.nextBookerId = bookerId;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class NearestBooking {
+
+    private final Long id;
+
+    private final Long itemId;
+
+    private final Long bookerId;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+
+    private final Status status;
+
+    private final boolean last;
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingFilter {
+
+    private final Long bookerId;
+
+    private final Long ownerId;
+
+    private final BookingState state;
+
+    private final LocalDateTime now;
+
+    private final BookingCursor cursor;
+
+    public static BookingFilter ofBooker(Long bookerId, BookingState state, BookingCursor cursor) {
+        return new BookingFilter(bookerId, null, state, LocalDateTime.now(), cursor);
+    }
+
+    public static BookingFilter ofOwner(Long ownerId, BookingState state, BookingCursor cursor) {
+        return new BookingFilter(null, ownerId, state, LocalDateTime.now(), cursor);
+    }
+}
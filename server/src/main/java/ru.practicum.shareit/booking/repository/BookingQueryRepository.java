@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.model.NearestBooking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    List<BookingListDto> findBookings(BookingFilter filter, int offset, int limit);
+
+    /**
+     * Последняя бронь — самая поздняя подтверждённая с началом не позже now, более поздние брони
+     * в других статусах её не скрывают. Следующая — самая ранняя неотклонённая с началом строго
+     * после now; бронь, начавшаяся ровно в now, уже не следующая.
+     */
+    List<NearestBooking> findLastAndNextBookings(Collection<Long> itemIds, LocalDateTime now);
+}
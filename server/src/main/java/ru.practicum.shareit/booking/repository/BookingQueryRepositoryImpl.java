@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.NearestBooking;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private static final String LAST_AND_NEXT_BOOKINGS = "select ranked.id, ranked.item_id, ranked.booker_id, " +
+            "ranked.start_date, ranked.end_date, ranked.status, ranked.is_last " +
+            "from (" +
+            "    select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, b.status, true as is_last, " +
+            "        row_number() over (partition by b.item_id order by b.start_date desc) as rn " +
+            "    from bookings b " +
+            "    where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date <= :now " +
+            "    union all " +
+            "    select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, b.status, false as is_last, " +
+            "        row_number() over (partition by b.item_id order by b.start_date) as rn " +
+            "    from bookings b " +
+            "    where b.item_id in (:itemIds) and b.status <> 'REJECTED' and b.start_date > :now" +
+            ") ranked " +
+            "where ranked.rn = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingListDto> findBookings(BookingFilter filter, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingListDto> query = cb.createQuery(BookingListDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+        LocalDateTime now = filter.getNow();
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getBookerId() != null) {
+            predicates.add(cb.equal(booking.get("booker").get("id"), filter.getBookerId()));
+        }
+        if (filter.getOwnerId() != null) {
+            predicates.add(cb.equal(item.get("owner").get("id"), filter.getOwnerId()));
+        }
+
+        switch (filter.getState()) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), Status.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), Status.REJECTED));
+                break;
+            case EXPIRED:
+                predicates.add(cb.equal(booking.get("status"), Status.EXPIRED));
+                break;
+            default:
+                break;
+        }
+
+        BookingCursor cursor = filter.getCursor();
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.select(cb.construct(BookingListDto.class, id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), booking.get("booker").get("id")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<NearestBooking> findLastAndNextBookings(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> rows = entityManager.createNativeQuery(LAST_AND_NEXT_BOOKINGS)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .getResultList();
+
+        List<NearestBooking> bookings = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            bookings.add(new NearestBooking(
+                    ((Number) row[0]).longValue(),
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(),
+                    toLocalDateTime(row[3]),
+                    toLocalDateTime(row[4]),
+                    row[5] != null ? Status.valueOf((String) row[5]) : null,
+                    (Boolean) row[6]));
+        }
+        return bookings;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -1,58 +1,130 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.booking.model.BookingOwnership;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByItemOwner(User owner, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    /**
+     * Счётчики состояний одним проходом по броням пользователя, условия те же, что у фильтров списков.
+     */
+    String COUNTS = "count(b), " +
+            "coalesce(sum(case when b.start < :now and b.end > :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = ru.practicum.shareit.booking.Status.WAITING then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = ru.practicum.shareit.booking.Status.REJECTED then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = ru.practicum.shareit.booking.Status.EXPIRED then 1 else 0 end), 0)";
 
-    List<Booking> findAllByItemOwnerAndStartBeforeAndEndAfter(
-            User owner,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findAllByItemOwnerAndEndBefore(User owner, LocalDateTime end, Pageable pageable);
+    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(
+            Long bookerId,
+            Long itemId,
+            Status status,
+            LocalDateTime end);
 
-    List<Booking> findAllByItemOwnerAndStartAfter(User owner, LocalDateTime start, Pageable pageable);
+    List<BookingInterval> findAllByItemIdAndStatusIn(Long itemId, Collection<Status> statuses);
 
-    List<Booking> findAllByItemOwnerAndStatusEquals(User owner, Status status, Pageable pageable);
+    @Modifying(flushAutomatically = true)
+    @Query("update Booking b set b.status = :status " +
+            "where b.id = :bookingId and b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(@Param("bookingId") Long bookingId,
+                              @Param("ownerId") Long ownerId,
+                              @Param("status") Status status);
 
-    List<Booking> findAllByBooker(User booker, Pageable pageable);
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") Long bookerId);
 
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfter(
-            User booker,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable);
+    @Query("select b.item.id from Booking b where b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
 
-    List<Booking> findAllByBookerAndEndBefore(User booker, LocalDateTime end, Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.model.BookingOwnership(" +
+            "b.id, i.id, i.owner.id, b.booker.id, b.status, b.start, b.end) " +
+            "from Booking b join b.item i where b.id in :ids")
+    List<BookingOwnership> findOwnershipByIdIn(@Param("ids") Collection<Long> ids);
 
-    List<Booking> findAllByBookerAndStartAfter(User booker, LocalDateTime start, Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status " +
+            "where b.id in :ids and b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusesIfWaiting(@Param("ids") Collection<Long> ids,
+                                @Param("ownerId") Long ownerId,
+                                @Param("status") Status status);
 
-    List<Booking> findAllByBookerAndStatusEquals(User booker, Status status, Pageable pageable);
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.Status.APPROVED " +
+            "and b.start < :end and b.end > :start")
+    boolean existsApprovedOverlap(@Param("itemId") Long itemId,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
 
-    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(
-            Long bookerId,
-            Long itemId,
-            Status status,
-            LocalDateTime end);
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.item.id in :itemIds and b.status in (ru.practicum.shareit.booking.Status.WAITING, " +
+            "ru.practicum.shareit.booking.Status.APPROVED) and b.start < :end and b.end > :start")
+    List<Long> findBookedItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+
+    /**
+     * Строки блокируются до отклонения, чтобы просрочка не перевела их в EXPIRED между выборкой и обновлением.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id from Booking b " +
+            "where b.item.id = :itemId and b.id <> :bookingId " +
+            "and b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "and b.start < :end and b.end > :start order by b.id")
+    List<Long> findOverlappingWaitingIds(@Param("itemId") Long itemId,
+                                         @Param("bookingId") Long bookingId,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ru.practicum.shareit.booking.Status.REJECTED " +
+            "where b.item.id = :itemId and b.id <> :bookingId " +
+            "and b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "and b.start < :end and b.end > :start")
+    int rejectOverlappingWaiting(@Param("itemId") Long itemId,
+                                 @Param("bookingId") Long bookingId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+
+    /**
+     * Следующая пачка ожидающих броней, начало которых уже прошло, после брони с id afterId. Строки
+     * блокируются, чтобы решение владельца не пересеклось с просрочкой.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "and b.start <= :now and b.id > :afterId order by b.id")
+    List<Booking> findStaleWaitingForUpdate(@Param("afterId") Long afterId,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    long countByStatusAndStartLessThanEqual(Status status, LocalDateTime start);
 
-    @Query(value = "select * from bookings b " +
-            "where b.item_id = :itemId and b.start_date <= :date order by b.start_date desc limit 1",
-            nativeQuery = true)
-    Booking findBookingByItemWithDateBefore(@Param("itemId") long itemId, @Param("date") LocalDateTime date);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingCountsDto(" + COUNTS + ") " +
+            "from Booking b where b.booker.id = :userId")
+    BookingCountsDto countByBookerId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
 
-    @Query(value = "select * from bookings b " +
-            "where b.item_id = :itemId and b.start_date >= :date order by b.start_date limit 1",
-            nativeQuery = true)
-    Booking findBookingByItemWithDateAfter(@Param("itemId") long itemId, @Param("date") LocalDateTime date);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingCountsDto(" + COUNTS + ") " +
+            "from Booking b join b.item i where i.owner.id = :userId")
+    BookingCountsDto countByOwnerId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
 }
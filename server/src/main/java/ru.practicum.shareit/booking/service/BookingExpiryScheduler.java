@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.cache.BookingCountsCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Переводит в EXPIRED ожидающие брони, начало которых прошло без решения владельца. Брони перебираются
+ * по возрастанию id пачками, так что каждая пачка — отдельная короткая транзакция.
+ */
+@Slf4j
+@Component
+public class BookingExpiryScheduler {
+    private final BookingExpiryService expiryService;
+    private final BookingCountsCache bookingCountsCache;
+    private final int batchSize;
+    private final Counter expiredCounter;
+    private final Timer runTimer;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public BookingExpiryScheduler(BookingExpiryService expiryService,
+                                  BookingCountsCache bookingCountsCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.booking-expiry.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Размер пачки просрочки броней должен быть положительным.");
+        }
+        this.expiryService = expiryService;
+        this.bookingCountsCache = bookingCountsCache;
+        this.batchSize = batchSize;
+        this.expiredCounter = Counter.builder("shareit.booking.expiry.expired")
+                .description("Сколько ожидающих броней переведено в EXPIRED")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.booking.expiry.run")
+                .description("Длительность одного прохода просрочки броней")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.expiry.backlog", backlog, AtomicLong::get)
+                .description("Сколько просроченных ожидающих броней осталось обработать")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.delay:60000}",
+            initialDelayString = "${shareit.booking-expiry.delay:60000}")
+    public void expire() {
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.nanoTime();
+        backlog.set(expiryService.countStaleBookings(now));
+
+        long afterId = 0;
+        int total = 0;
+        int processed;
+        do {
+            List<Long> expired = expiryService.expireStaleBookings(afterId, now, batchSize);
+            processed = expired.size();
+            if (processed > 0) {
+                afterId = expired.get(processed - 1);
+            }
+            total += processed;
+            expiredCounter.increment(processed);
+            backlog.accumulateAndGet(processed, (remaining, done) -> Math.max(0, remaining - done));
+        } while (processed == batchSize);
+
+        runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (total > 0) {
+            bookingCountsCache.invalidateAll();
+            log.debug("Просрочено ожидающих броней: {}", total);
+        }
+    }
+}
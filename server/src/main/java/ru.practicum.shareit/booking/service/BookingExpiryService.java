@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingExpiryService {
+
+    /**
+     * Переводит в EXPIRED следующую пачку ожидающих броней, начавшихся не позже now, с id больше afterId.
+     * Возвращает id обработанных броней по возрастанию.
+     */
+    List<Long> expireStaleBookings(Long afterId, LocalDateTime now, int batchSize);
+
+    long countStaleBookings(LocalDateTime now);
+}
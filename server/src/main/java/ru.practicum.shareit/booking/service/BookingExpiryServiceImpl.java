@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Каждая пачка обрабатывается в своей короткой транзакции: строки блокируются выборкой, меняются пакетным
+ * обновлением и отпускаются при фиксации. Сводки предметов не трогаются — просроченная бронь уже началась
+ * и не может быть ближайшей, а последней считается только подтверждённая.
+ */
+@Service
+public class BookingExpiryServiceImpl implements BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    public BookingExpiryServiceImpl(BookingRepository bookingRepository, BookingIntervalIndex bookingIntervalIndex) {
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+    }
+
+    @Transactional
+    @Override
+    public List<Long> expireStaleBookings(Long afterId, LocalDateTime now, int batchSize) {
+        List<Booking> bookings = bookingRepository.findStaleWaitingForUpdate(afterId, now,
+                PageRequest.of(0, batchSize));
+
+        for (Booking booking : bookings) {
+            booking.setStatus(Status.EXPIRED);
+            bookingIntervalIndex.remove(booking.getItem().getId(), booking.getId());
+        }
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long countStaleBookings(LocalDateTime now) {
+        return bookingRepository.countByStatusAndStartLessThanEqual(Status.WAITING, now);
+    }
+}
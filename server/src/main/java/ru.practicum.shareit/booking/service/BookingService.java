@@ -1,7 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 
 import java.util.List;
 
@@ -11,9 +16,23 @@ public interface BookingService {
 
     BookingDto responseByOwner(Long bookingId, Long userId, Boolean approved);
 
-    List<BookingDto> getAllBookingsByOwnerId(Long userId, String state, int from, int size);
+    /**
+     * Подтверждает или отклоняет несколько броней владельца в одной транзакции. Брони, по которым решение
+     * принять нельзя, не мешают остальным и возвращаются с причиной отказа.
+     */
+    List<BookingDecisionResultDto> respondInBatch(Long userId, List<BookingDecisionDto> decisions);
 
-    List<BookingDto> getAllBookingsByUserId(Long userId, String state, int from, int size);
+    List<BookingListDto> getAllBookingsByOwnerId(Long userId, String state, int from, int size);
+
+    List<BookingListDto> getAllBookingsByUserId(Long userId, String state, int from, int size);
+
+    List<BookingListDto> getAllBookingsByOwnerIdAfter(Long userId, String state, BookingCursor cursor, int size);
+
+    List<BookingListDto> getAllBookingsByUserIdAfter(Long userId, String state, BookingCursor cursor, int size);
 
     BookingDto getBookingById(Long bookingId, Long userId);
+
+    BookingCountsDto getBookingCountsByUserId(Long userId);
+
+    BookingCountsDto getBookingCountsByOwnerId(Long userId);
 }
@@ -1,27 +1,45 @@
 package ru.practicum.shareit.booking.service;
 
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.cache.BookingCountsCache;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingOwnership;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSuggestTrie;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,14 +47,30 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemLockManager itemLockManager;
+    private final ItemSuggestTrie itemSuggestTrie;
+    private final BookingCountsCache bookingCountsCache;
+    private final boolean rejectOverlappingOnApprove;
     private final BookingMapper mapper = new BookingMapper();
-    private final Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
     public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository,
-                              ItemRepository itemRepository) {
+                              ItemRepository itemRepository, BookingIntervalIndex bookingIntervalIndex,
+                              ItemBookingSummaryService itemBookingSummaryService,
+                              ItemLockManager itemLockManager, ItemSuggestTrie itemSuggestTrie,
+                              BookingCountsCache bookingCountsCache,
+                              @Value("${shareit.booking.reject-overlapping-on-approve:false}")
+                              boolean rejectOverlappingOnApprove) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemBookingSummaryService = itemBookingSummaryService;
+        this.itemLockManager = itemLockManager;
+        this.itemSuggestTrie = itemSuggestTrie;
+        this.bookingCountsCache = bookingCountsCache;
+        this.rejectOverlappingOnApprove = rejectOverlappingOnApprove;
     }
 
     @Transactional
@@ -46,7 +80,7 @@ public class BookingServiceImpl implements BookingService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException(("Пользователь с ID " + userId + " не найден.")));
 
-        Item item = itemRepository.findById(bookingCreationDto.getItemId())
+        Item item = itemRepository.findWithOwnerAndRequestById(bookingCreationDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Предмет с ID " + bookingCreationDto.getItemId() + " не найден."));
 
         if (item.getOwner().getId().equals(userId)) {
@@ -62,10 +96,19 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Дата окончания бронирования раньше или равно дате начала. Бронирование невозможно.");
         }
 
+        itemLockManager.lockUntilTransactionEnds(item.getId());
+        if (hasConflict(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new BadRequestException("Предмет уже забронирован на выбранные даты. Бронирование невозможно.");
+        }
+
         booking.setBooker(user);
         booking.setItem(item);
         booking.setStatus(Status.WAITING);
         bookingRepository.save(booking);
+        bookingIntervalIndex.add(booking);
+        itemBookingSummaryService.onCreated(booking);
+        afterCommit(() -> itemSuggestTrie.onBooked(item.getId()));
+        bookingCountsCache.invalidate(userId, item.getOwner().getId());
 
         return mapper.toBookingDto(booking);
     }
@@ -73,27 +116,123 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public BookingDto responseByOwner(Long bookingId, Long userId, Boolean approved) {
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
 
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с id " + bookingId + "не найдено."));
-
-        if (!userId.equals(booking.getItem().getOwner().getId())) {
-            throw new NotFoundException("Бронирование не принадлежит пользователю с id " + userId);
+        if (approved && rejectOverlappingOnApprove) {
+            // предмет блокируется до смены статуса — в том же порядке, что и при создании брони
+            bookingRepository.findItemIdById(bookingId).ifPresent(itemLockManager::lockUntilTransactionEnds);
+        }
+        if (bookingRepository.updateStatusIfWaiting(bookingId, userId, status) == 0) {
+            throw rejectedTransition(bookingId, userId);
         }
 
-        if (!booking.getStatus().equals(Status.WAITING)) {
-            throw new BadRequestException("Статус ожидания уже был изменен владельцем.");
+        Booking booking = findBooking(bookingId);
+        List<Long> rejectedIds = null;
+        if (approved && rejectOverlappingOnApprove) {
+            rejectedIds = rejectOverlapping(booking.getItem().getId(), bookingId, booking.getStart(), booking.getEnd());
+            if (!rejectedIds.isEmpty()) {
+                // массовое обновление очистило контекст персистентности, бронь перечитывается вместе с графом
+                booking = findBooking(bookingId);
+            }
         }
+        booking.setStatus(status);
 
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
+        if (!approved) {
+            bookingIntervalIndex.remove(booking);
+            itemBookingSummaryService.onRejected(booking);
+        } else if (rejectedIds == null || rejectedIds.isEmpty()) {
+            itemBookingSummaryService.onApproved(booking);
         } else {
-            booking.setStatus(Status.REJECTED);
+            itemBookingSummaryService.onStatusesChanged(List.of(booking.getItem().getId()));
         }
+        bookingCountsCache.invalidate(userId, booking.getBooker().getId());
 
-        bookingRepository.save(booking);
+        BookingDto bookingDto = mapper.toBookingDto(booking);
+        bookingDto.setRejectedBookingIds(rejectedIds);
+        return bookingDto;
+    }
 
-        return mapper.toBookingDto(booking);
+    @Transactional
+    @Override
+    public List<BookingDecisionResultDto> respondInBatch(Long userId, List<BookingDecisionDto> decisions) {
+        checkUserExists(userId);
+        if (decisions.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BookingOwnership> bookings = bookingRepository.findOwnershipByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(BookingOwnership::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        Map<Long, BookingDecisionResultDto> waitingResults = new HashMap<>();
+        Set<Long> decided = new HashSet<>();
+        List<BookingOwnership> approved = new ArrayList<>();
+        List<BookingOwnership> rejected = new ArrayList<>();
+        Set<Long> itemIds = new HashSet<>();
+        Set<Long> bookerIds = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            BookingOwnership booking = bookings.get(bookingId);
+            if (!decided.add(bookingId)) {
+                results.add(new BookingDecisionResultDto(bookingId, null, "Бронирование указано в запросе повторно."));
+            } else if (booking == null || !userId.equals(booking.getOwnerId())) {
+                results.add(new BookingDecisionResultDto(bookingId, null,
+                        "Бронирование не найдено среди бронирований пользователя с id " + userId + "."));
+            } else if (booking.getStatus() != Status.WAITING) {
+                results.add(new BookingDecisionResultDto(bookingId, booking.getStatus(),
+                        "Статус ожидания уже был изменен владельцем."));
+            } else {
+                BookingOwnership overlap = decision.getApproved() ? findApprovedOverlap(approved, booking) : null;
+                BookingDecisionResultDto result;
+                if (overlap != null) {
+                    result = new BookingDecisionResultDto(bookingId, Status.WAITING,
+                            "Пересекается с бронированием " + overlap.getId() + ", подтверждённым в этом запросе.");
+                } else if (decision.getApproved()) {
+                    approved.add(booking);
+                    result = new BookingDecisionResultDto(bookingId, Status.APPROVED, null);
+                } else {
+                    rejected.add(booking);
+                    result = new BookingDecisionResultDto(bookingId, Status.REJECTED, null);
+                }
+                itemIds.add(booking.getItemId());
+                bookerIds.add(booking.getBookerId());
+                waitingResults.put(bookingId, result);
+                results.add(result);
+            }
+        }
+
+        if (rejectOverlappingOnApprove) {
+            itemLockManager.lockAllUntilTransactionEnds(approved.stream()
+                    .map(BookingOwnership::getItemId)
+                    .collect(Collectors.toList()));
+        }
+        List<Long> approvedIds = approved.stream().map(BookingOwnership::getId).collect(Collectors.toList());
+        List<Long> rejectedIds = rejected.stream().map(BookingOwnership::getId).collect(Collectors.toList());
+        int updated = updateStatuses(approvedIds, userId, Status.APPROVED)
+                + updateStatuses(rejectedIds, userId, Status.REJECTED);
+        if (updated != approvedIds.size() + rejectedIds.size()) {
+            throw new ConflictException("Статусы бронирований изменились во время обработки, повторите запрос.");
+        }
+
+        rejected.forEach(booking -> bookingIntervalIndex.remove(booking.getItemId(), booking.getId()));
+        if (rejectOverlappingOnApprove) {
+            for (BookingOwnership booking : approved) {
+                List<Long> swept = rejectOverlapping(booking.getItemId(), booking.getId(),
+                        booking.getStart(), booking.getEnd());
+                waitingResults.get(booking.getId()).setRejectedBookingIds(swept);
+                swept.stream()
+                        .map(waitingResults::get)
+                        .filter(Objects::nonNull)
+                        .forEach(result -> result.setStatus(Status.REJECTED));
+            }
+        }
+        itemBookingSummaryService.onStatusesChanged(itemIds);
+        bookerIds.add(userId);
+        bookingCountsCache.invalidate(bookerIds.toArray(Long[]::new));
+        return results;
     }
 
     @Transactional(readOnly = true)
@@ -113,91 +252,147 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingDto> getAllBookingsByUserId(Long userId, String state, int from, int size) {
+    public List<BookingListDto> getAllBookingsByUserId(Long userId, String state, int from, int size) {
+        checkUserExists(userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден."));
-
-        List<Booking> bookings = new ArrayList<>();
-
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-
-        switch (state) {
-            case "ALL":
-                bookings.addAll(bookingRepository.findAllByBooker(user, pageable));
-                break;
-            case "CURRENT":
-                bookings.addAll(bookingRepository
-                        .findAllByBookerAndStartBeforeAndEndAfter(user, LocalDateTime.now(), LocalDateTime.now(),
-                                pageable));
-                break;
-            case "PAST":
-                bookings.addAll(bookingRepository
-                        .findAllByBookerAndEndBefore(user, LocalDateTime.now(), pageable));
-                break;
-            case "FUTURE":
-                bookings.addAll(bookingRepository
-                        .findAllByBookerAndStartAfter(user, LocalDateTime.now(), pageable));
-                break;
-            case "WAITING":
-                bookings.addAll(bookingRepository
-                        .findAllByBookerAndStatusEquals(user, Status.WAITING, pageable));
-                break;
-            case "REJECTED":
-                bookings.addAll(bookingRepository
-                        .findAllByBookerAndStatusEquals(user, Status.REJECTED, pageable));
-                break;
-            default:
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
-        }
-
-        return bookings.stream().map(mapper::toBookingDto).collect(Collectors.toList());
+        return findBookings(BookingFilter.ofBooker(userId, BookingState.from(state), null), from, size);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingDto> getAllBookingsByOwnerId(Long userId, String state, int from, int size) {
+    public List<BookingListDto> getAllBookingsByOwnerId(Long userId, String state, int from, int size) {
+        checkUserExists(userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден."));
-
-        List<Booking> bookings = new ArrayList<>();
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-
-        switch (state) {
-            case "ALL":
-                bookings.addAll(bookingRepository.findAllByItemOwner(user, pageable));
-                break;
-
-            case "CURRENT":
-                bookings.addAll(bookingRepository
-                        .findAllByItemOwnerAndStartBeforeAndEndAfter(user, LocalDateTime.now(), LocalDateTime.now(),
-                                pageable));
-                break;
-
-            case "PAST":
-                bookings.addAll(bookingRepository
-                        .findAllByItemOwnerAndEndBefore(user, LocalDateTime.now(), pageable));
-                break;
-
-            case "FUTURE":
-                bookings.addAll(bookingRepository
-                        .findAllByItemOwnerAndStartAfter(user, LocalDateTime.now(), pageable));
-                break;
-
-            case "WAITING":
-                bookings.addAll(bookingRepository
-                        .findAllByItemOwnerAndStatusEquals(user, Status.WAITING, pageable));
-                break;
-
-            case "REJECTED":
-                bookings.addAll(bookingRepository
-                        .findAllByItemOwnerAndStatusEquals(user, Status.REJECTED, pageable));
-                break;
-
-            default:
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        return bookings.stream().map(mapper::toBookingDto).collect(Collectors.toList());
+        return findBookings(BookingFilter.ofOwner(userId, BookingState.from(state), null), from, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingListDto> getAllBookingsByUserIdAfter(Long userId, String state, BookingCursor cursor, int size) {
+        checkUserExists(userId);
+
+        return findBookings(BookingFilter.ofBooker(userId, BookingState.from(state), cursor), 0, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingListDto> getAllBookingsByOwnerIdAfter(Long userId, String state, BookingCursor cursor, int size) {
+        checkUserExists(userId);
+
+        return findBookings(BookingFilter.ofOwner(userId, BookingState.from(state), cursor), 0, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingCountsDto getBookingCountsByUserId(Long userId) {
+        checkUserExists(userId);
+
+        BookingCountsDto counts = bookingCountsCache.get(BookingCountsCache.Role.BOOKER, userId);
+        if (counts == null) {
+            counts = bookingRepository.countByBookerId(userId, LocalDateTime.now());
+            bookingCountsCache.put(BookingCountsCache.Role.BOOKER, userId, counts);
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingCountsDto getBookingCountsByOwnerId(Long userId) {
+        checkUserExists(userId);
+
+        BookingCountsDto counts = bookingCountsCache.get(BookingCountsCache.Role.OWNER, userId);
+        if (counts == null) {
+            counts = bookingRepository.countByOwnerId(userId, LocalDateTime.now());
+            bookingCountsCache.put(BookingCountsCache.Role.OWNER, userId, counts);
+        }
+        return counts;
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с ID " + userId + " не найден.");
+        }
+    }
+
+    private Booking findBooking(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с id " + bookingId + "не найдено."));
+    }
+
+    /**
+     * В режиме автоматического отклонения новая бронь может пересекаться с ожидающими — конфликтом
+     * считается только подтверждённая. Вызывается под блокировкой предмета.
+     */
+    private boolean hasConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (rejectOverlappingOnApprove) {
+            return bookingRepository.existsApprovedOverlap(itemId, start, end);
+        }
+        return bookingIntervalIndex.findConflict(itemId, start, end) != null;
+    }
+
+    /**
+     * Отклоняет ожидающие брони предмета, пересекающиеся с подтверждённой, одним обновлением по диапазону.
+     * Вызывается под блокировкой предмета, взятой до подтверждения, поэтому между выборкой и обновлением
+     * не появится новая пересекающаяся бронь. Арендаторы отклонённых броней не загружаются, поэтому
+     * счётчики сбрасываются целиком.
+     */
+    private List<Long> rejectOverlapping(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        List<Long> ids = bookingRepository.findOverlappingWaitingIds(itemId, bookingId, start, end);
+        if (!ids.isEmpty()) {
+            bookingRepository.rejectOverlappingWaiting(itemId, bookingId, start, end);
+            ids.forEach(id -> bookingIntervalIndex.remove(itemId, id));
+            bookingCountsCache.invalidateAll();
+        }
+        return ids;
+    }
+
+    /**
+     * Подтверждение, уже принятое в этом же запросе и пересекающееся с бронью. Без режима
+     * автоматического отклонения пересечений не проверяются.
+     */
+    private BookingOwnership findApprovedOverlap(List<BookingOwnership> approved, BookingOwnership booking) {
+        if (!rejectOverlappingOnApprove) {
+            return null;
+        }
+        return approved.stream()
+                .filter(other -> other.getItemId().equals(booking.getItemId())
+                        && other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private int updateStatuses(List<Long> bookingIds, Long ownerId, Status status) {
+        return bookingIds.isEmpty() ? 0 : bookingRepository.updateStatusesIfWaiting(bookingIds, ownerId, status);
+    }
+
+    private List<BookingListDto> findBookings(BookingFilter filter, int from, int size) {
+        return bookingRepository.findBookings(filter, from, size);
+    }
+
+    private RuntimeException rejectedTransition(Long bookingId, Long userId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с id " + bookingId + "не найдено."));
+
+        if (!userId.equals(booking.getItem().getOwner().getId())) {
+            return new NotFoundException("Бронирование не принадлежит пользователю с id " + userId);
+        }
+
+        return new BadRequestException("Статус ожидания уже был изменен владельцем.");
+    }
+
+    /**
+     * Счётчик бронирований в дереве подсказок растёт только после фиксации брони.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
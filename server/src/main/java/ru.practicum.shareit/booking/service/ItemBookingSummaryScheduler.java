@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class ItemBookingSummaryScheduler {
+    private final ItemBookingSummaryService summaryService;
+    private final int batchSize;
+
+    public ItemBookingSummaryScheduler(ItemBookingSummaryService summaryService,
+                                       @Value("${shareit.booking-summary.roll-forward-batch-size:500}") int batchSize) {
+        this.summaryService = summaryService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-forward-delay:60000}")
+    public void rollForward() {
+        int total = 0;
+        int processed;
+        do {
+            processed = summaryService.rollForward(batchSize);
+            total += processed;
+        } while (processed == batchSize);
+
+        if (total > 0) {
+            log.debug("Обновлены сводки бронирований для {} вещей", total);
+        }
+    }
+}
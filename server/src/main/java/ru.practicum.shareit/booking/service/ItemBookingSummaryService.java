@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+
+    void onCreated(Booking booking);
+
+    void onApproved(Booking booking);
+
+    void onRejected(Booking booking);
+
+    /**
+     * Пересчитывает сводки предметов после массовой смены статусов их бронирований.
+     */
+    void onStatusesChanged(Collection<Long> itemIds);
+
+    /**
+     * Пересчитывает существующие сводки предметов, чьи брони удалены в обход сервиса.
+     */
+    void recompute(Collection<Long> itemIds);
+
+    Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds);
+
+    int rollForward(int batchSize);
+}
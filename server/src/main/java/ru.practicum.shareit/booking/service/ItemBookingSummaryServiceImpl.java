@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.model.NearestBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает таблицу item_booking_summary: последнее подтверждённое и ближайшее
+ * неотклонённое бронирование каждой вещи. Строка обновляется в той же транзакции,
+ * что и само бронирование, а смену «ближайшего» на «последнее» со временем
+ * догоняет {@link #rollForward(int)}.
+ */
+@Service
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    public ItemBookingSummaryServiceImpl(ItemBookingSummaryRepository summaryRepository,
+                                         BookingRepository bookingRepository) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Transactional
+    @Override
+    public void onCreated(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lockSummary(booking.getItem().getId(), now);
+
+        summary.setTotalBookings(summary.getTotalBookings() + 1);
+        if (booking.getStart().isAfter(now) && booking.getStatus() != Status.REJECTED
+                && (summary.getNextBookingStart() == null || booking.getStart().isBefore(summary.getNextBookingStart()))) {
+            summary.setNextBooking(booking.getId(), booking.getStart(), booking.getEnd(), booking.getBooker().getId());
+        }
+        summary.setUpdatedAt(now);
+    }
+
+    @Transactional
+    @Override
+    public void onApproved(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lockSummary(booking.getItem().getId(), now);
+
+        if (!booking.getStart().isAfter(now)
+                && (summary.getLastBookingStart() == null || booking.getStart().isAfter(summary.getLastBookingStart()))) {
+            summary.setLastBooking(booking.getId(), booking.getStart(), booking.getEnd(), booking.getBooker().getId());
+        }
+        summary.setUpdatedAt(now);
+    }
+
+    @Transactional
+    @Override
+    public void onRejected(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lockSummary(booking.getItem().getId(), now);
+
+        if (booking.getId().equals(summary.getNextBookingId()) || booking.getId().equals(summary.getLastBookingId())) {
+            recompute(List.of(summary), now);
+        }
+    }
+
+    @Transactional
+    @Override
+    public void onStatusesChanged(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingSummary> summaries = new ArrayList<>(summaryRepository.findAllForUpdate(itemIds));
+        Set<Long> locked = summaries.stream().map(ItemBookingSummary::getItemId).collect(Collectors.toSet());
+        itemIds.stream()
+                .filter(itemId -> !locked.contains(itemId))
+                .forEach(itemId -> summaries.add(summaryRepository.save(new ItemBookingSummary(itemId, now))));
+
+        recompute(summaries, now);
+    }
+
+    @Transactional
+    @Override
+    public void recompute(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        recompute(summaryRepository.findAllForUpdate(itemIds), LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return summaryRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+    }
+
+    @Transactional
+    @Override
+    public int rollForward(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = summaryRepository.findItemIdsWithNextBookingStartedBefore(now,
+                PageRequest.of(0, batchSize));
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+
+        recompute(summaryRepository.findAllById(itemIds), now);
+        return itemIds.size();
+    }
+
+    private ItemBookingSummary lockSummary(Long itemId, LocalDateTime now) {
+        return summaryRepository.findForUpdate(itemId)
+                .orElseGet(() -> summaryRepository.save(new ItemBookingSummary(itemId, now)));
+    }
+
+    private void recompute(List<ItemBookingSummary> summaries, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summariesByItemId = summaries.stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        summaries.forEach(summary -> {
+            summary.setLastBooking(null, null, null, null);
+            summary.setNextBooking(null, null, null, null);
+            summary.setUpdatedAt(now);
+        });
+
+        for (NearestBooking booking : bookingRepository.findLastAndNextBookings(summariesByItemId.keySet(), now)) {
+            ItemBookingSummary summary = summariesByItemId.get(booking.getItemId());
+            if (booking.isLast()) {
+                summary.setLastBooking(booking.getId(), booking.getStart(), booking.getEnd(), booking.getBookerId());
+            } else {
+                summary.setNextBooking(booking.getId(), booking.getStart(), booking.getEnd(), booking.getBookerId());
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * LRU-кэш с ограниченным сроком жизни записей. Каждое вытеснение увеличивает эпоху; промах запоминает
+ * текущую эпоху, и значение кладётся в кэш, только если с момента промаха вытеснений не было, иначе
+ * параллельный запрос, прочитавший данные до изменения, закэшировал бы прежнее состояние.
+ */
+public class EpochLruCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, Long> missEpochs;
+    private long epoch;
+
+    /**
+     * @param onSizeEviction вызывается при вытеснении самой старой записи из-за размера
+     */
+    public EpochLruCache(int maxSize, Duration ttl, Runnable onSizeEviction) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = super.size() > EpochLruCache.this.maxSize;
+                if (evict) {
+                    onSizeEviction.run();
+                }
+                return evict;
+            }
+        };
+        this.missEpochs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                return super.size() > EpochLruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Возвращает значение или null, если его нет или срок жизни истёк; промах запоминает эпоху.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || System.nanoTime() - entry.createdAt >= ttlNanos) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            missEpochs.put(key, epoch);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Кладёт значение, полученное после промаха в {@link #get}. Если с тех пор кэш вытеснялся,
+     * значение могло устареть и не сохраняется.
+     */
+    public synchronized void put(K key, V value) {
+        Long missEpoch = missEpochs.remove(key);
+        if (missEpoch == null || missEpoch != epoch) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * Удаляет переданные ключи и возвращает количество удалённых записей.
+     */
+    public synchronized int removeAll(Collection<K> keys) {
+        epoch++;
+        int removed = 0;
+        for (K key : keys) {
+            if (entries.remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Удаляет записи, ключи которых подходят под условие, и возвращает их количество.
+     */
+    public synchronized int removeIf(Predicate<K> predicate) {
+        epoch++;
+        int removed = 0;
+        Iterator<K> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (predicate.test(keys.next())) {
+                keys.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Удаляет все записи и возвращает их количество.
+     */
+    public synchronized int clear() {
+        epoch++;
+        int removed = entries.size();
+        entries.clear();
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FacetedSearchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
+    private static final String HAS_MORE_HEADER = "X-Has-More";
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemImporter itemImporter) {
         this.itemService = itemService;
+        this.itemImporter = itemImporter;
     }
 
     @GetMapping("/{id}")
@@ -24,10 +40,10 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> findAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                      @RequestParam(defaultValue = "0") @Min(0) int from,
-                                      @RequestParam(defaultValue = "20") @Min(1) int size) {
-        return itemService.findAllItems(userId, from, size);
+    public ResponseEntity<List<ItemDto>> findAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                      @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return withHasMore(itemService.findAllItems(userId, from, size));
     }
 
     @PostMapping
@@ -35,6 +51,15 @@ public class ItemController {
         return itemService.createItem(itemDto, userId);
     }
 
+    /**
+     * Импорт предметов из JSON-массива или NDJSON, по результату на каждую строку.
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<ItemImportResultDto> importItems(InputStream body,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) throws IOException {
+        return itemImporter.importItems(body, userId);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItem(@RequestBody ItemDto itemDto, @PathVariable Long id,
                               @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -47,10 +72,32 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text,
-                                @RequestParam(defaultValue = "0") @Min(0) int from,
-                                @RequestParam(defaultValue = "20") @Min(1) int size) {
-        return itemService.search(text, from, size);
+    public ResponseEntity<List<ItemDto>> search(@RequestParam String text,
+                                                @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return withHasMore(itemService.search(text, from, size));
+    }
+
+    @GetMapping("/search/faceted")
+    public FacetedSearchDto searchFaceted(@RequestParam String text, ItemSearchFilter filter,
+                                          @RequestParam(defaultValue = "0") @Min(0) int from,
+                                          @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return itemService.searchFaceted(text, filter, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggest(@RequestParam String prefix,
+                                           @RequestParam(defaultValue = "10") @Min(1) int limit) {
+        return itemService.suggest(prefix, limit);
+    }
+
+    @GetMapping("/{id}/availability")
+    public List<AvailabilityDto> getAvailability(@PathVariable Long id,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                 LocalDate from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                 LocalDate to) {
+        return itemService.getAvailability(id, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -58,4 +105,10 @@ public class ItemController {
                                     @Valid @RequestBody CommentDto commentDto) {
         return itemService.createComment(itemId, userId, commentDto);
     }
+
+    private ResponseEntity<List<ItemDto>> withHasMore(Slice<ItemDto> items) {
+        return ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(items.hasNext()))
+                .body(items.getContent());
+    }
 }
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.booking.index.DayRange;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
@@ -34,4 +36,8 @@ public class ItemMapper {
                 item.getAvailable(),
                 item.getRequest().getId());
     }
+
+    public AvailabilityDto toAvailabilityDto(DayRange range) {
+        return new AvailabilityDto(range.getFrom(), range.getTo());
+    }
 }
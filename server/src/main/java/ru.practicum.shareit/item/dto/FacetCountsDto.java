@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetCountsDto {
+    private long total;
+
+    private Map<Long, Long> owners;
+
+    private long withRequest;
+
+    private Map<Long, Long> requests;
+
+    private long withComments;
+}
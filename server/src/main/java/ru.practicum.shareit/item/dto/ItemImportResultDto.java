@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Результат импорта одной строки: id созданного предмета или причина, по которой строка пропущена.
+ * Строки нумеруются с нуля в порядке следования во входных данных.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportResultDto {
+    private int index;
+
+    private Long id;
+
+    private String error;
+}
@@ -1,10 +1,22 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+
+    @Query("select c.item.id as itemId, c.id as id, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a " +
+            "where c.item.id in :itemIds " +
+            "order by c.created, c.id")
+    List<CommentView> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select distinct c.item.id from Comment c")
+    List<Long> findCommentedItemIds();
 }
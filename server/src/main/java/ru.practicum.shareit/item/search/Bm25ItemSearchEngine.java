@@ -0,0 +1,177 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Поиск с ранжированием по BM25F: частоты слов и длины названия и описания каждого предмета
+ * хранятся в индексе, совпадение в названии весит больше, чем в описании. Как и в режиме index,
+ * слово запроса совпадает со всеми словами предмета, которые с него начинаются, а слова запроса
+ * объединяются по «И». Результаты упорядочены по убыванию оценки, при равной оценке — по id.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "bm25")
+public class Bm25ItemSearchEngine extends InMemoryItemSearchEngine<Bm25ItemSearchEngine.Document> {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private final NavigableMap<String, Map<Long, Document>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    public Bm25ItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected List<Long> find(String text, int offset, int limit) {
+        Set<String> queryTerms = SearchTokenizer.tokenize(text);
+        if (queryTerms.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+        double averageNameLength = Math.max(1.0, (double) totalNameLength / documents.size());
+        double averageDescriptionLength = Math.max(1.0, (double) totalDescriptionLength / documents.size());
+
+        Map<Long, Double> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).forEach((term, matches) -> {
+                double idf = Math.log(1 + (documents.size() - matches.size() + 0.5) / (matches.size() + 0.5));
+                matches.forEach((id, document) -> termScores.merge(id,
+                        idf * document.saturatedFrequency(term, averageNameLength, averageDescriptionLength),
+                        Double::sum));
+            });
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return top(scores, offset, limit);
+    }
+
+    @Override
+    protected Document documentOf(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return null;
+        }
+        Document document = new Document(SearchTokenizer.termFrequencies(item.getName()),
+                SearchTokenizer.termFrequencies(item.getDescription()));
+        return document.terms().isEmpty() ? null : document;
+    }
+
+    @Override
+    protected Document replace(Long itemId, Document document) {
+        Document previous = document == null ? documents.remove(itemId) : documents.put(itemId, document);
+        if (previous != null) {
+            totalNameLength -= previous.nameLength;
+            totalDescriptionLength -= previous.descriptionLength;
+            for (String term : previous.terms()) {
+                Map<Long, Document> matches = postings.get(term);
+                matches.remove(itemId);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        if (document != null) {
+            totalNameLength += document.nameLength;
+            totalDescriptionLength += document.descriptionLength;
+            document.terms().forEach(term -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(itemId, document));
+        }
+        return previous;
+    }
+
+    @Override
+    protected void clear() {
+        postings.clear();
+        documents.clear();
+        totalNameLength = 0;
+        totalDescriptionLength = 0;
+    }
+
+    @Override
+    protected int size() {
+        return documents.size();
+    }
+
+    /**
+     * Выбирает страницу из лучших offset + limit оценок кучей, не сортируя все совпадения.
+     */
+    private static List<Long> top(Map<Long, Double> scores, int offset, int limit) {
+        Comparator<Map.Entry<Long, Double>> byRelevance = Map.Entry.<Long, Double>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        int capacity = (int) Math.min((long) offset + limit, scores.size());
+        if (capacity <= offset) {
+            return List.of();
+        }
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(capacity, byRelevance.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (best.size() < capacity) {
+                best.add(entry);
+            } else if (byRelevance.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        List<Long> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return ranked.subList(offset, ranked.size());
+    }
+
+    static final class Document {
+        private final Map<String, Integer> nameFrequencies;
+        private final Map<String, Integer> descriptionFrequencies;
+        private final int nameLength;
+        private final int descriptionLength;
+
+        private Document(Map<String, Integer> nameFrequencies, Map<String, Integer> descriptionFrequencies) {
+            this.nameFrequencies = nameFrequencies;
+            this.descriptionFrequencies = descriptionFrequencies;
+            this.nameLength = nameFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+            this.descriptionLength = descriptionFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        private Set<String> terms() {
+            Set<String> terms = new HashSet<>(nameFrequencies.keySet());
+            terms.addAll(descriptionFrequencies.keySet());
+            return terms;
+        }
+
+        /**
+         * Взвешенная по полям частота слова, нормированная на длину полей и насыщенная параметром k1.
+         */
+        private double saturatedFrequency(String term, double averageNameLength, double averageDescriptionLength) {
+            double frequency = NAME_WEIGHT * nameFrequencies.getOrDefault(term, 0)
+                    / (1 - B + B * nameLength / averageNameLength)
+                    + DESCRIPTION_WEIGHT * descriptionFrequencies.getOrDefault(term, 0)
+                    / (1 - B + B * descriptionLength / averageDescriptionLength);
+            return frequency / (K1 + frequency);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Отсортированный список id, сжатый разностным кодированием: хранятся разности соседних id
+ * в формате varint (7 бит на байт). Список разбит на блоки не больше {@value #BLOCK_SIZE} id,
+ * каждый блок кодируется отдельно. Добавление id больше последнего — дописывание в конец,
+ * остальные изменения перекодируют только свой блок, переполненный блок делится пополам.
+ */
+public class CompressedPostingList {
+    private static final int BLOCK_SIZE = 128;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int sizeInBytes() {
+        int bytes = 0;
+        for (Block block : blocks) {
+            bytes += block.length;
+        }
+        return bytes;
+    }
+
+    public void add(long id) {
+        Block tail = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (tail == null || id > tail.last) {
+            if (tail == null || tail.count == BLOCK_SIZE) {
+                tail = new Block(BLOCK_SIZE);
+                blocks.add(tail);
+            }
+            tail.append(id);
+            size++;
+            return;
+        }
+
+        int index = blockFor(id);
+        long[] ids = blocks.get(index).toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        size++;
+        if (updated.length <= BLOCK_SIZE) {
+            blocks.set(index, Block.of(updated, 0, updated.length));
+            return;
+        }
+        int half = updated.length / 2;
+        blocks.set(index, Block.of(updated, 0, half));
+        blocks.add(index + 1, Block.of(updated, half, updated.length));
+    }
+
+    public void remove(long id) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        int index = blockFor(id);
+        long[] ids = blocks.get(index).toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return;
+        }
+        size--;
+        if (ids.length == 1) {
+            blocks.remove(index);
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, ids.length - position - 1);
+        blocks.set(index, Block.of(ids, 0, ids.length - 1));
+    }
+
+    public long[] toArray() {
+        long[] ids = new long[size];
+        int offset = 0;
+        for (Block block : blocks) {
+            offset = block.decodeInto(ids, offset);
+        }
+        return ids;
+    }
+
+    /**
+     * Последний блок, первый id которого не больше искомого; id меньше всех относится к первому блоку.
+     */
+    private int blockFor(long id) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (blocks.get(middle).first <= id) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static final class Block {
+        private byte[] data;
+        private int length;
+        private int count;
+        private long first;
+        private long last;
+
+        private Block(int capacity) {
+            data = new byte[Math.max(4, capacity * 2)];
+        }
+
+        private static Block of(long[] ids, int from, int to) {
+            Block block = new Block(to - from);
+            for (int i = from; i < to; i++) {
+                block.append(ids[i]);
+            }
+            return block;
+        }
+
+        private void append(long id) {
+            long delta = count == 0 ? id : id - last;
+            while (length + 10 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((delta & ~0x7FL) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+            if (count == 0) {
+                first = id;
+            }
+            last = id;
+            count++;
+        }
+
+        private long[] toArray() {
+            long[] ids = new long[count];
+            decodeInto(ids, 0);
+            return ids;
+        }
+
+        private int decodeInto(long[] ids, int offset) {
+            long current = 0;
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                current += delta;
+                ids[offset++] = current;
+            }
+            return offset;
+        }
+    }
+}
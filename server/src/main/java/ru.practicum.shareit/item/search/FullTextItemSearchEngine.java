@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск средствами базы данных. В PostgreSQL используется сгенерированная колонка items.search_vector
+ * с GIN-индексом, слова запроса ищутся по префиксу и объединяются по «И», результаты упорядочены
+ * по ts_rank. Колонку и индекс создаёт schema-fts.sql, который выполняется при создании движка, то есть
+ * только в этом режиме. В остальных базах (H2 в тестах) выполняется совместимый запрос через like
+ * с сортировкой по id.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "fts")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private static final String FTS_QUERY = "select i.id from items i, to_tsquery('simple', :query) q " +
+            "where i.is_available = true and i.search_vector @@ q " +
+            "order by ts_rank(i.search_vector, q) desc, i.id";
+
+    private final boolean postgres;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public FullTextItemSearchEngine(DataSource dataSource) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+        if (postgres) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema-fts.sql")).execute(dataSource);
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        // search_vector пересчитывается базой данных.
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        // Строка удаляется вместе с предметом.
+    }
+
+    @Override
+    public List<Long> search(String text, int offset, int limit) {
+        Set<String> terms = SearchTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = postgres ? fullTextQuery(terms) : likeQuery(terms);
+        List<?> ids = query
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<Long> result = new ArrayList<>(ids.size());
+        ids.forEach(id -> result.add(((Number) id).longValue()));
+        return result;
+    }
+
+    private Query fullTextQuery(Set<String> terms) {
+        String tsQuery = terms.stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return entityManager.createNativeQuery(FTS_QUERY)
+                .setParameter("query", tsQuery);
+    }
+
+    private Query likeQuery(Set<String> terms) {
+        StringBuilder sql = new StringBuilder("select i.id from items i where i.is_available = true");
+        for (int i = 0; i < terms.size(); i++) {
+            sql.append(" and (lower(i.name) like :term").append(i)
+                    .append(" or lower(i.description) like :term").append(i).append(')');
+        }
+        sql.append(" order by i.id");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        int i = 0;
+        for (String term : terms) {
+            query.setParameter("term" + i++, "%" + term + "%");
+        }
+        return query;
+    }
+}
@@ -0,0 +1,333 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Сжатое множество id в духе Roaring: id делятся на блоки по старшим битам, а младшие 16 бит
+ * хранятся в блоке либо отсортированным массивом (пока значений не больше {@value #ARRAY_LIMIT}),
+ * либо битовой картой на 65536 бит. Пересечение идёт поблочно и не разворачивает множества в списки.
+ */
+public final class IdBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1 << 10;
+
+    private final NavigableMap<Long, Container> containers = new TreeMap<>();
+
+    public static IdBitmap of(Iterable<Long> ids) {
+        IdBitmap bitmap = new IdBitmap();
+        ids.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    public void add(long id) {
+        containers.compute(id >>> 16, (key, container) ->
+                (container == null ? new ArrayContainer() : container).add(low(id)));
+    }
+
+    public void remove(long id) {
+        containers.computeIfPresent(id >>> 16, (key, container) -> {
+            Container changed = container.remove(low(id));
+            return changed.cardinality() == 0 ? null : changed;
+        });
+    }
+
+    public boolean contains(long id) {
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains(low(id));
+    }
+
+    public boolean isEmpty() {
+        return containers.isEmpty();
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (Container container : containers.values()) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        forEachPair(other, (key, left, right) -> {
+            Container container = left.and(right);
+            if (container.cardinality() > 0) {
+                result.containers.put(key, container);
+            }
+        });
+        return result;
+    }
+
+    public IdBitmap andNot(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        for (Map.Entry<Long, Container> entry : containers.entrySet()) {
+            Container excluded = other.containers.get(entry.getKey());
+            Container container = new ArrayContainer();
+            Iterator<Character> values = entry.getValue().iterator();
+            while (values.hasNext()) {
+                char value = values.next();
+                if (excluded == null || !excluded.contains(value)) {
+                    container = container.add(value);
+                }
+            }
+            if (container.cardinality() > 0) {
+                result.containers.put(entry.getKey(), container);
+            }
+        }
+        return result;
+    }
+
+    public long andCardinality(IdBitmap other) {
+        long[] cardinality = {0};
+        forEachPair(other, (key, left, right) -> cardinality[0] += left.andCardinality(right));
+        return cardinality[0];
+    }
+
+    private void forEachPair(IdBitmap other, PairConsumer consumer) {
+        IdBitmap smaller = containers.size() <= other.containers.size() ? this : other;
+        IdBitmap larger = smaller == this ? other : this;
+        for (Map.Entry<Long, Container> entry : smaller.containers.entrySet()) {
+            Container container = larger.containers.get(entry.getKey());
+            if (container != null) {
+                consumer.accept(entry.getKey(), entry.getValue(), container);
+            }
+        }
+    }
+
+    private static char low(long id) {
+        return (char) (id & 0xFFFF);
+    }
+
+    private interface PairConsumer {
+        void accept(Long key, Container left, Container right);
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Iterator<Character> iterator();
+
+        Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            Iterator<Character> values = cardinality() <= other.cardinality() ? iterator() : other.iterator();
+            Container probe = cardinality() <= other.cardinality() ? other : this;
+            while (values.hasNext()) {
+                char value = values.next();
+                if (probe.contains(value)) {
+                    result.append(value);
+                }
+            }
+            return result;
+        }
+
+        int andCardinality(Container other) {
+            int cardinality = 0;
+            Iterator<Character> values = cardinality() <= other.cardinality() ? iterator() : other.iterator();
+            Container probe = cardinality() <= other.cardinality() ? other : this;
+            while (values.hasNext()) {
+                if (probe.contains(values.next())) {
+                    cardinality++;
+                }
+            }
+            return cardinality;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        Container add(char value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                return new BitmapContainer(this).add(value);
+            }
+            position = -position - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size * 2));
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+            return this;
+        }
+
+        /**
+         * Добавляет значение больше всех имеющихся.
+         */
+        void append(char value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        Container remove(char value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, size - position - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Iterator<Character> iterator() {
+            return new Iterator<>() {
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return position < size;
+                }
+
+                @Override
+                public Character next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return values[position++];
+                }
+            };
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[WORDS];
+        private int cardinality;
+
+        private BitmapContainer(ArrayContainer array) {
+            for (int i = 0; i < array.size; i++) {
+                add(array.values[i]);
+            }
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+            }
+            if (cardinality > ARRAY_LIMIT) {
+                return this;
+            }
+            ArrayContainer array = new ArrayContainer();
+            iterator().forEachRemaining(array::append);
+            return array;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (!(other instanceof BitmapContainer)) {
+                return super.and(other);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            ArrayContainer array = new ArrayContainer();
+            BitmapContainer bitmap = null;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i] & otherWords[i];
+                while (word != 0) {
+                    char value = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    if (bitmap == null && array.size < ARRAY_LIMIT) {
+                        array.append(value);
+                    } else {
+                        if (bitmap == null) {
+                            bitmap = new BitmapContainer(array);
+                        }
+                        bitmap.add(value);
+                    }
+                    word &= word - 1;
+                }
+            }
+            return bitmap == null ? array : bitmap;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (!(other instanceof BitmapContainer)) {
+                return super.andCardinality(other);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int result = 0;
+            for (int i = 0; i < WORDS; i++) {
+                result += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return result;
+        }
+
+        @Override
+        Iterator<Character> iterator() {
+            return new Iterator<>() {
+                private int word;
+                private long bits = words[0];
+
+                @Override
+                public boolean hasNext() {
+                    while (bits == 0 && word < WORDS - 1) {
+                        bits = words[++word];
+                    }
+                    return bits != 0;
+                }
+
+                @Override
+                public Character next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    char value = (char) (word * 64 + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                    return value;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Основа для индексов поиска, которые живут в памяти сервера. Индекс строится при старте приложения
+ * и обновляется сразу при изменении предмета; при откате транзакции документы затронутых предметов
+ * возвращаются к состоянию до её начала.
+ *
+ * @param <D> документ, который индекс хранит для одного предмета
+ */
+@Slf4j
+public abstract class InMemoryItemSearchEngine<D> implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RollbackJournal<D> journal = new RollbackJournal<>(this::restore);
+
+    protected InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int size;
+        lock.writeLock().lock();
+        try {
+            clear();
+            Page<Item> page;
+            int number = 0;
+            do {
+                page = itemRepository.findAll(PageRequest.of(number++, REBUILD_BATCH_SIZE, Sort.by("id")));
+                page.forEach(item -> replace(item.getId(), documentOf(item)));
+            } while (page.hasNext());
+            size = size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс предметов построен: {} предметов", size);
+    }
+
+    @Override
+    public void index(Item item) {
+        update(item.getId(), documentOf(item));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        update(itemId, null);
+    }
+
+    @Override
+    public List<Long> search(String text, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return find(text, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает документ предмета или null, если предмет не должен находиться поиском.
+     */
+    protected abstract D documentOf(Item item);
+
+    /**
+     * Заменяет документ предмета (null удаляет его из индекса) и возвращает прежний документ.
+     */
+    protected abstract D replace(Long itemId, D document);
+
+    protected abstract void clear();
+
+    protected abstract int size();
+
+    /**
+     * Выполняется под блокировкой чтения.
+     */
+    protected abstract List<Long> find(String text, int offset, int limit);
+
+    protected static List<Long> page(Iterable<Long> ids, int offset, int limit) {
+        List<Long> page = new ArrayList<>();
+        int position = 0;
+        for (Long id : ids) {
+            if (position++ < offset) {
+                continue;
+            }
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(id);
+        }
+        return page;
+    }
+
+    private void update(Long itemId, D document) {
+        D previous;
+        lock.writeLock().lock();
+        try {
+            previous = replace(itemId, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        journal.record(itemId, previous);
+    }
+
+    private void restore(Map<Long, D> originals) {
+        lock.writeLock().lock();
+        try {
+            originals.forEach(this::replace);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
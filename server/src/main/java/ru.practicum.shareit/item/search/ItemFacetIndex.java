@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.FacetCountsDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Сжатые битовые карты id предметов по значениям фасетов: владелец, запрос, наличие запроса и
+ * комментариев. Фильтры поиска пересекаются как битовые карты до загрузки предметов из базы,
+ * по ним же считаются количества в выдаче. Сервисы меняют карты только после фиксации транзакции.
+ */
+@Slf4j
+@Component
+public class ItemFacetIndex {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int FACET_VALUES_LIMIT = 10;
+
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Facets> facetsByItem = new HashMap<>();
+    private final Map<Long, IdBitmap> byOwner = new HashMap<>();
+    private final Map<Long, IdBitmap> byRequest = new HashMap<>();
+    private final IdBitmap withRequest = new IdBitmap();
+    private final IdBitmap withComments = new IdBitmap();
+
+    public ItemFacetIndex(ItemRepository itemRepository, CommentRepository commentRepository) {
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            new HashSet<>(facetsByItem.keySet()).forEach(id -> replace(id, null));
+            Set<Long> commented = new HashSet<>(commentRepository.findCommentedItemIds());
+            Page<Item> page;
+            int number = 0;
+            do {
+                page = itemRepository.findAll(PageRequest.of(number++, REBUILD_BATCH_SIZE, Sort.by("id")));
+                page.forEach(item -> replace(item.getId(), new Facets(item, commented.contains(item.getId()))));
+            } while (page.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Фасеты предметов построены: {} предметов", facetsByItem.size());
+    }
+
+    public void index(Item item) {
+        update(item.getId(), previous -> new Facets(item, previous != null && previous.commented));
+    }
+
+    public void onCommented(Long itemId) {
+        update(itemId, previous -> previous == null ? null : previous.withComments());
+    }
+
+    public void remove(Long itemId) {
+        update(itemId, previous -> null);
+    }
+
+    /**
+     * Оставляет из найденных текстом предметов те, что подходят под все заданные фильтры, сохраняя
+     * порядок выдачи. Период доступности проверяется по базе, занятые в нём предметы передаются в booked.
+     */
+    public List<Long> filter(List<Long> matchedIds, ItemSearchFilter filter, IdBitmap booked) {
+        lock.readLock().lock();
+        try {
+            IdBitmap result = IdBitmap.of(matchedIds).andNot(booked);
+            if (filter.getOwnerId() != null) {
+                result = result.and(byOwner.getOrDefault(filter.getOwnerId(), new IdBitmap()));
+            }
+            if (filter.getRequestId() != null) {
+                result = result.and(byRequest.getOrDefault(filter.getRequestId(), new IdBitmap()));
+            }
+            if (filter.getHasRequest() != null) {
+                result = filter.getHasRequest() ? result.and(withRequest) : result.andNot(withRequest);
+            }
+            if (filter.getHasComments() != null) {
+                result = filter.getHasComments() ? result.and(withComments) : result.andNot(withComments);
+            }
+            return matchedIds.stream()
+                    .filter(result::contains)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Считает фасеты по найденным предметам; для владельцев и запросов возвращает
+     * {@value #FACET_VALUES_LIMIT} самых частых значений.
+     */
+    public FacetCountsDto count(Collection<Long> matchedIds) {
+        IdBitmap matched = IdBitmap.of(matchedIds);
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> owners = new HashMap<>();
+            Map<Long, Long> requests = new HashMap<>();
+            for (Long id : matchedIds) {
+                Facets facets = facetsByItem.get(id);
+                if (facets == null) {
+                    continue;
+                }
+                owners.merge(facets.ownerId, 1L, Long::sum);
+                if (facets.requestId != null) {
+                    requests.merge(facets.requestId, 1L, Long::sum);
+                }
+            }
+            return new FacetCountsDto(matchedIds.size(), mostFrequent(owners), matched.andCardinality(withRequest),
+                    mostFrequent(requests), matched.andCardinality(withComments));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Long itemId, UnaryOperator<Facets> change) {
+        lock.writeLock().lock();
+        try {
+            replace(itemId, change.apply(facetsByItem.get(itemId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Long itemId, Facets facets) {
+        Facets previous = facets == null ? facetsByItem.remove(itemId) : facetsByItem.put(itemId, facets);
+        if (previous != null) {
+            removeFrom(byOwner, previous.ownerId, itemId);
+            if (previous.requestId != null) {
+                withRequest.remove(itemId);
+                removeFrom(byRequest, previous.requestId, itemId);
+            }
+            if (previous.commented) {
+                withComments.remove(itemId);
+            }
+        }
+        if (facets != null) {
+            byOwner.computeIfAbsent(facets.ownerId, key -> new IdBitmap()).add(itemId);
+            if (facets.requestId != null) {
+                withRequest.add(itemId);
+                byRequest.computeIfAbsent(facets.requestId, key -> new IdBitmap()).add(itemId);
+            }
+            if (facets.commented) {
+                withComments.add(itemId);
+            }
+        }
+    }
+
+    private static void removeFrom(Map<Long, IdBitmap> bitmaps, Long value, Long itemId) {
+        IdBitmap ids = bitmaps.get(value);
+        ids.remove(itemId);
+        if (ids.isEmpty()) {
+            bitmaps.remove(value);
+        }
+    }
+
+    private static Map<Long, Long> mostFrequent(Map<Long, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(FACET_VALUES_LIMIT)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (left, right) -> left,
+                        LinkedHashMap::new));
+    }
+
+    private static final class Facets {
+        private final Long ownerId;
+        private final Long requestId;
+        private final boolean commented;
+
+        private Facets(Item item, boolean commented) {
+            this(item.getOwner().getId(), item.getRequest() == null ? null : item.getRequest().getId(), commented);
+        }
+
+        private Facets(Long ownerId, Long requestId, boolean commented) {
+            this.ownerId = ownerId;
+            this.requestId = requestId;
+            this.commented = commented;
+        }
+
+        private Facets withComments() {
+            return new Facets(ownerId, requestId, true);
+        }
+    }
+}
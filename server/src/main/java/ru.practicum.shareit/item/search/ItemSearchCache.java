@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.cache.EpochLruCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * LRU-кэш страниц поиска по ключу (нормализованный текст, from, size). Изменение предмета вытесняет
+ * только те запросы, все слова которых встречаются в старом или новом тексте предмета; вытеснение
+ * повторяется после завершения транзакции. Страница, найденная до вытеснения, в кэш не попадает
+ * (см. {@link EpochLruCache}).
+ */
+@Component
+public class ItemSearchCache {
+    private final EpochLruCache<Key, Slice<ItemDto>> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+    private final Counter invalidationCounter;
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.item-search.cache.max-size:1000}") int maxSize,
+                           @Value("${shareit.item-search.cache.ttl:PT10M}") Duration ttl) {
+        this.hitCounter = Counter.builder("shareit.item-search.cache.hits")
+                .description("Запросы поиска, найденные в кэше")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("shareit.item-search.cache.misses")
+                .description("Запросы поиска, которых не было в кэше")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("shareit.item-search.cache.evictions")
+                .description("Записи, вытесненные из кэша поиска по размеру")
+                .register(meterRegistry);
+        this.invalidationCounter = Counter.builder("shareit.item-search.cache.invalidations")
+                .description("Записи, удалённые из кэша поиска после изменения предметов")
+                .register(meterRegistry);
+        this.entries = new EpochLruCache<>(maxSize, ttl, evictionCounter::increment);
+        Gauge.builder("shareit.item-search.cache.size", this, ItemSearchCache::size)
+                .description("Текущее количество записей в кэше поиска")
+                .register(meterRegistry);
+    }
+
+    public Slice<ItemDto> get(String text, int from, int size) {
+        Slice<ItemDto> result = entries.get(new Key(text, from, size));
+        (result == null ? missCounter : hitCounter).increment();
+        return result;
+    }
+
+    /**
+     * Кладёт страницу, найденную после промаха в {@link #get}. Если с тех пор кэш вытеснялся,
+     * страница могла устареть и не сохраняется.
+     */
+    public void put(String text, int from, int size, Slice<ItemDto> result) {
+        entries.put(new Key(text, from, size), result);
+    }
+
+    /**
+     * Вытесняет запросы, которые могли совпасть с любым из переданных текстов предмета.
+     */
+    public void invalidate(String... itemTexts) {
+        List<String> texts = Arrays.stream(itemTexts)
+                .map(ItemSearchCache::normalize)
+                .collect(Collectors.toList());
+        evictMatching(texts);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictMatching(texts);
+                }
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает кэш целиком, когда предметы удаляются в обход сервиса, например вместе с владельцем.
+     */
+    public void invalidateAll() {
+        invalidationCounter.increment(entries.clear());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictMatching(List<String> texts) {
+        invalidationCounter.increment(entries.removeIf(key -> texts.stream().anyMatch(key::matches)));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String query;
+        private final int from;
+        private final int size;
+        @EqualsAndHashCode.Exclude
+        private final Set<String> terms;
+
+        private Key(String text, int from, int size) {
+            this.query = normalize(text);
+            this.from = from;
+            this.size = size;
+            this.terms = SearchTokenizer.tokenize(text);
+        }
+
+        /**
+         * Совпадение заведомо шире любого из режимов поиска: каждое слово запроса — подстрока текста.
+         */
+        private boolean matches(String itemText) {
+            return terms.stream().allMatch(itemText::contains);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных предметов по тексту. Реализация выбирается свойством shareit.item-search.mode.
+ */
+public interface ItemSearchEngine {
+
+    void index(Item item);
+
+    void remove(Long itemId);
+
+    /**
+     * Возвращает id подходящих предметов в порядке выдачи, начиная с позиции offset.
+     */
+    List<Long> search(String text, int offset, int limit);
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Инвертированный индекс по словам из названия и описания доступных предметов. Слово запроса
+ * совпадает с любым словом предмета, которое с него начинается; слова запроса объединяются по «И»,
+ * результаты упорядочены по id.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex extends InMemoryItemSearchEngine<Set<String>> {
+    private final NavigableMap<String, NavigableSet<Long>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByItem = new HashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected List<Long> find(String text, int offset, int limit) {
+        NavigableSet<Long> matches = null;
+        for (String term : SearchTokenizer.tokenize(text)) {
+            NavigableSet<Long> termMatches = matchPrefix(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.retainAll(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+        return matches == null ? List.of() : page(matches, offset, limit);
+    }
+
+    @Override
+    protected Set<String> documentOf(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return null;
+        }
+        Set<String> terms = SearchTokenizer.tokenize(item.getName());
+        terms.addAll(SearchTokenizer.tokenize(item.getDescription()));
+        return terms.isEmpty() ? null : terms;
+    }
+
+    @Override
+    protected Set<String> replace(Long itemId, Set<String> terms) {
+        Set<String> previous = termsByItem.remove(itemId);
+        if (previous != null) {
+            for (String term : previous) {
+                NavigableSet<Long> ids = postings.get(term);
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        if (terms != null) {
+            termsByItem.put(itemId, terms);
+            terms.forEach(term -> postings.computeIfAbsent(term, key -> new TreeSet<>()).add(itemId));
+        }
+        return previous;
+    }
+
+    @Override
+    protected void clear() {
+        postings.clear();
+        termsByItem.clear();
+    }
+
+    @Override
+    protected int size() {
+        return termsByItem.size();
+    }
+
+    private NavigableSet<Long> matchPrefix(String prefix) {
+        NavigableSet<Long> ids = new TreeSet<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values()
+                .forEach(ids::addAll);
+        return ids;
+    }
+}
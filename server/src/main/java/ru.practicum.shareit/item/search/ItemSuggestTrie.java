@@ -0,0 +1,253 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Префиксное дерево слов из названий доступных предметов для подсказок при вводе. Каждый узел хранит
+ * top-K предметов своего поддерева по числу бронирований, поэтому ответ не зависит от количества
+ * предметов. Сервисы меняют дерево только после фиксации транзакции, вместе с поисковым индексом.
+ */
+@Slf4j
+@Component
+public class ItemSuggestTrie {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final int topK;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Node root = new Node();
+
+    public ItemSuggestTrie(ItemRepository itemRepository, ItemBookingSummaryRepository summaryRepository,
+                           @Value("${shareit.item-suggest.top-k:10}") int topK) {
+        this.itemRepository = itemRepository;
+        this.summaryRepository = summaryRepository;
+        this.topK = topK;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            root.children.clear();
+            root.terminal.clear();
+            root.top = List.of();
+            Page<Item> page;
+            int number = 0;
+            do {
+                page = itemRepository.findAll(PageRequest.of(number++, REBUILD_BATCH_SIZE, Sort.by("id")));
+                Map<Long, Long> bookings = summaryRepository.findAllById(page.map(Item::getId).getContent())
+                        .stream()
+                        .collect(Collectors.toMap(ItemBookingSummary::getItemId, ItemBookingSummary::getTotalBookings));
+                page.forEach(item -> replace(item.getId(),
+                        new Document(item, bookings.getOrDefault(item.getId(), 0L))));
+            } while (page.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Дерево подсказок предметов построено: {} предметов", documents.size());
+    }
+
+    public void index(Item item) {
+        update(item.getId(), previous -> new Document(item, previous == null ? 0 : previous.bookings));
+    }
+
+    public void remove(Long itemId) {
+        update(itemId, previous -> null);
+    }
+
+    public void onBooked(Long itemId) {
+        update(itemId, previous -> previous == null ? null : previous.withBookings(previous.bookings + 1));
+    }
+
+    /**
+     * Возвращает до limit (но не больше K) самых бронируемых доступных предметов, в названии которых
+     * есть слово, начинающееся с последнего слова prefix.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String term = SearchTokenizer.lastTerm(prefix);
+        if (term == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.children.get(term.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return node.top.stream()
+                    .limit(limit)
+                    .map(ranked -> new ItemSuggestionDto(ranked.itemId, documents.get(ranked.itemId).name))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Long itemId, UnaryOperator<Document> change) {
+        lock.writeLock().lock();
+        try {
+            replace(itemId, change.apply(documents.get(itemId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Long itemId, Document document) {
+        Document previous = document == null ? documents.remove(itemId) : documents.put(itemId, document);
+        if (previous != null && previous.available) {
+            Ranked ranked = new Ranked(itemId, previous.bookings);
+            previous.terms.forEach(term -> removeTerm(term, ranked));
+        }
+        if (document != null && document.available) {
+            Ranked ranked = new Ranked(itemId, document.bookings);
+            document.terms.forEach(term -> addTerm(term, ranked));
+        }
+    }
+
+    private void addTerm(String term, Ranked ranked) {
+        List<Node> path = new ArrayList<>(term.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), key -> new Node());
+            path.add(node);
+        }
+        node.terminal.add(ranked);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeTop(path.get(i));
+        }
+    }
+
+    private void removeTerm(String term, Ranked ranked) {
+        List<Node> path = new ArrayList<>(term.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.get(term.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.add(node);
+        }
+        node.terminal.remove(ranked);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.terminal.isEmpty() && current.children.isEmpty()) {
+                path.get(i - 1).children.remove(term.charAt(i - 1));
+            } else {
+                recomputeTop(current);
+            }
+        }
+    }
+
+    private void recomputeTop(Node node) {
+        NavigableSet<Ranked> candidates = new TreeSet<>();
+        Iterator<Ranked> terminal = node.terminal.iterator();
+        for (int i = 0; i < topK && terminal.hasNext(); i++) {
+            candidates.add(terminal.next());
+        }
+        node.children.values().forEach(child -> candidates.addAll(child.top));
+        List<Ranked> top = new ArrayList<>(Math.min(topK, candidates.size()));
+        Iterator<Ranked> best = candidates.iterator();
+        for (int i = 0; i < topK && best.hasNext(); i++) {
+            top.add(best.next());
+        }
+        node.top = top;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final NavigableSet<Ranked> terminal = new TreeSet<>();
+        private List<Ranked> top = List.of();
+    }
+
+    private static final class Document {
+        private final String name;
+        private final boolean available;
+        private final Set<String> terms;
+        private final long bookings;
+
+        private Document(Item item, long bookings) {
+            this(item.getName(), Boolean.TRUE.equals(item.getAvailable()), SearchTokenizer.tokenize(item.getName()),
+                    bookings);
+        }
+
+        private Document(String name, boolean available, Set<String> terms, long bookings) {
+            this.name = name;
+            this.available = available;
+            this.terms = terms;
+            this.bookings = bookings;
+        }
+
+        private Document withBookings(long bookings) {
+            return new Document(name, available, terms, bookings);
+        }
+    }
+
+    /**
+     * Предмет в порядке выдачи: сначала чаще бронируемые, при равенстве — с меньшим id.
+     */
+    private static final class Ranked implements Comparable<Ranked> {
+        private final long itemId;
+        private final long bookings;
+
+        private Ranked(long itemId, long bookings) {
+            this.itemId = itemId;
+            this.bookings = bookings;
+        }
+
+        @Override
+        public int compareTo(Ranked other) {
+            int byBookings = Long.compare(other.bookings, bookings);
+            return byBookings != 0 ? byBookings : Long.compare(itemId, other.itemId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Ranked)) {
+                return false;
+            }
+            Ranked ranked = (Ranked) o;
+            return itemId == ranked.itemId && bookings == ranked.bookings;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(itemId) * 31 + Long.hashCode(bookings);
+        }
+    }
+}
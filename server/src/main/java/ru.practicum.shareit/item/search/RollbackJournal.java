@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Запоминает документ каждого изменённого предмета, каким он был до начала текущей транзакции,
+ * и передаёт эти документы на восстановление, если транзакция откатилась. Вне транзакции
+ * изменения сразу окончательные.
+ *
+ * @param <D> документ, который структура в памяти хранит для одного предмета
+ */
+final class RollbackJournal<D> {
+    private final Consumer<Map<Long, D>> restore;
+
+    RollbackJournal(Consumer<Map<Long, D>> restore) {
+        this.restore = restore;
+    }
+
+    void record(Long itemId, D previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, D> originals = (Map<Long, D>) TransactionSynchronizationManager.getResource(this);
+        if (originals == null) {
+            Map<Long, D> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RollbackJournal.this);
+                    if (status != STATUS_COMMITTED) {
+                        restore.accept(bound);
+                    }
+                }
+            });
+            originals = bound;
+        }
+        if (!originals.containsKey(itemId)) {
+            originals.put(itemId, previous);
+        }
+    }
+}
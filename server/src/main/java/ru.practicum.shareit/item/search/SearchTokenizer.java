@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Разбивает текст на слова из букв и цифр в нижнем регистре, «ё» заменяется на «е».
+     */
+    public static Set<String> tokenize(String text) {
+        return new TreeSet<>(termFrequencies(text).keySet());
+    }
+
+    /**
+     * Возвращает, сколько раз каждое слово встречается в тексте; слова нормализуются как в
+     * {@link #tokenize(String)}.
+     */
+    public static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        StringBuilder term = new StringBuilder();
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        for (int i = 0; i < normalized.length(); i++) {
+            char ch = normalized.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                term.append(ch);
+            } else if (term.length() > 0) {
+                frequencies.merge(term.toString(), 1, Integer::sum);
+                term.setLength(0);
+            }
+        }
+        if (term.length() > 0) {
+            frequencies.merge(term.toString(), 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Возвращает последнее слово текста в той же нормализации, что и {@link #tokenize(String)},
+     * или null, если слов нет.
+     */
+    public static String lastTerm(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int end = normalized.length();
+        while (end > 0 && !Character.isLetterOrDigit(normalized.charAt(end - 1))) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && Character.isLetterOrDigit(normalized.charAt(start - 1))) {
+            start--;
+        }
+        return start == end ? null : normalized.substring(start, end);
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Триграммный индекс для поиска подстроки в названии или описании доступных предметов, как это
+ * делал like '%text%'. Кандидаты — пересечение списков предметов по всем триграммам запроса, затем
+ * каждый кандидат проверяется на точное вхождение. Запросы короче трёх символов проверяются перебором.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "trigram")
+public class TrigramItemSearchEngine extends InMemoryItemSearchEngine<TrigramItemSearchEngine.Document> {
+    private static final int GRAM = 3;
+
+    private final Map<Long, CompressedPostingList> postings = new HashMap<>();
+    private final NavigableMap<Long, Document> documents = new TreeMap<>();
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected List<Long> find(String text, int offset, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> result = new ArrayList<>();
+        int skipped = 0;
+        for (long id : candidates(query)) {
+            if (!documents.get(id).contains(query)) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            result.add(id);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected Document documentOf(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return null;
+        }
+        return new Document(normalize(item.getName()), normalize(item.getDescription()));
+    }
+
+    @Override
+    protected Document replace(Long itemId, Document document) {
+        Document previous = document == null ? documents.remove(itemId) : documents.put(itemId, document);
+        if (previous != null) {
+            for (long gram : previous.grams) {
+                CompressedPostingList ids = postings.get(gram);
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        if (document != null) {
+            for (long gram : document.grams) {
+                postings.computeIfAbsent(gram, key -> new CompressedPostingList()).add(itemId);
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    protected void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    @Override
+    protected int size() {
+        return documents.size();
+    }
+
+    private long[] candidates(String query) {
+        long[] grams = grams(query);
+        if (grams.length == 0) {
+            return documents.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        List<CompressedPostingList> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            CompressedPostingList ids = postings.get(gram);
+            if (ids == null) {
+                return new long[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(CompressedPostingList::size));
+
+        long[] candidates = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i).toArray());
+        }
+        return candidates;
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                result[count++] = left[i];
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    private static long[] grams(String... texts) {
+        return Arrays.stream(texts)
+                .flatMapToLong(text -> {
+                    long[] grams = new long[Math.max(0, text.length() - GRAM + 1)];
+                    for (int i = 0; i < grams.length; i++) {
+                        grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+                    }
+                    return Arrays.stream(grams);
+                })
+                .distinct()
+                .toArray();
+    }
+
+    static final class Document {
+        private final String name;
+        private final String description;
+        private final long[] grams;
+
+        private Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+            this.grams = grams(name, description);
+        }
+
+        private boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+}
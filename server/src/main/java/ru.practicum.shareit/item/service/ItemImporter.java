@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Импорт предметов из JSON-массива или NDJSON. Строки читаются по одной, проверяются и копятся в пачку,
+ * каждая пачка сохраняется в своей транзакции, поэтому в памяти держится не больше одной пачки.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ObjectReader reader;
+    private final int batchSize;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ItemImporter(ItemService itemService,
+                        UserRepository userRepository,
+                        ObjectMapper objectMapper,
+                        @Value("${shareit.item-import.batch-size:500}") int batchSize) {
+        this.itemService = itemService;
+        this.userRepository = userRepository;
+        this.reader = objectMapper.readerFor(ItemDto.class);
+        this.batchSize = batchSize;
+    }
+
+    public List<ItemImportResultDto> importItems(InputStream body, Long userId) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с ID " + userId + " не найден.");
+        }
+
+        List<ItemImportResultDto> results = new ArrayList<>();
+        List<ItemDto> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        int index = 0;
+        try (MappingIterator<ItemDto> rows = reader.readValues(body)) {
+            while (true) {
+                ItemDto itemDto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    itemDto = rows.nextValue();
+                } catch (JsonParseException e) {
+                    results.add(new ItemImportResultDto(index, null,
+                            "Некорректный JSON, импорт остановлен: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(new ItemImportResultDto(index++, null,
+                            "Некорректная строка: " + e.getOriginalMessage()));
+                    continue;
+                }
+
+                String error = validate(itemDto);
+                if (error != null) {
+                    results.add(new ItemImportResultDto(index++, null, error));
+                    continue;
+                }
+                batch.add(itemDto);
+                batchIndexes.add(index++);
+                if (batch.size() == batchSize) {
+                    results.addAll(flush(batch, batchIndexes, userId));
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(flush(batch, batchIndexes, userId));
+        }
+
+        results.sort(Comparator.comparingInt(ItemImportResultDto::getIndex));
+        log.debug("Импорт предметов пользователя {}: {} строк", userId, results.size());
+        return results;
+    }
+
+    /**
+     * Сохраняет пачку и отпускает созданные сущности, чтобы контекст персистентности запроса не рос
+     * вместе с импортом. Позиции в пачке заменяются номерами строк во входных данных.
+     */
+    private List<ItemImportResultDto> flush(List<ItemDto> batch, List<Integer> batchIndexes, Long userId) {
+        List<ItemImportResultDto> created = itemService.createItems(batch, userId);
+        created.forEach(result -> result.setIndex(batchIndexes.get(result.getIndex())));
+        batch.clear();
+        batchIndexes.clear();
+        entityManager.clear();
+        return created;
+    }
+
+    /**
+     * Те же правила, что и у одиночного создания предмета в шлюзе: строки импорта шлюз не разбирает.
+     */
+    private static String validate(ItemDto itemDto) {
+        List<String> fields = new ArrayList<>();
+        if (itemDto.getAvailable() == null) {
+            fields.add("available");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            fields.add("description");
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            fields.add("name");
+        }
+        return fields.isEmpty() ? null : "Некорректные поля: " + String.join(", ", fields) + ".";
+    }
+}
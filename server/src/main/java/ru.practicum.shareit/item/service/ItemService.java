@@ -1,22 +1,42 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FacetedSearchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ItemService {
     ItemDto getItemById(Long id, Long ownerId);
 
-    List<ItemDto> findAllItems(Long userId, int from, int size);
+    Slice<ItemDto> findAllItems(Long userId, int from, int size);
 
     ItemDto createItem(ItemDto itemDto, Long userId);
 
+    /**
+     * Создаёт пачку предметов одного владельца в одной транзакции. Владелец и запросы загружаются один
+     * раз на пачку, строки со ссылкой на несуществующий запрос пропускаются. Результаты идут в порядке
+     * переданных предметов и нумеруются по позиции в списке.
+     */
+    List<ItemImportResultDto> createItems(List<ItemDto> itemDtos, Long userId);
+
     ItemDto updateItem(ItemDto itemDto, Long id, Long userId);
 
     void deleteItem(Long id);
 
-    List<ItemDto> search(String text, int from, int size);
+    Slice<ItemDto> search(String text, int from, int size);
+
+    FacetedSearchDto searchFaceted(String text, ItemSearchFilter filter, int from, int size);
+
+    List<ItemSuggestionDto> suggest(String prefix, int limit);
 
     CommentDto createComment(Long itemId, Long userId, CommentDto commentDto);
+
+    List<AvailabilityDto> getAvailability(Long itemId, LocalDate from, LocalDate to);
 }
@@ -3,40 +3,72 @@ package ru.practicum.shareit.item.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.Status;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FacetedSearchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IdBitmap;
+import ru.practicum.shareit.item.search.ItemFacetIndex;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestTrie;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestTrie itemSuggestTrie;
+    private final ItemFacetIndex itemFacetIndex;
     private final ItemMapper itemMapper = new ItemMapper();
     private final CommentMapper commentMapper = new CommentMapper();
     private final BookingMapper bookingMapper = new BookingMapper();
@@ -46,13 +78,25 @@ public class ItemServiceImpl implements ItemService {
                            UserRepository userRepository,
                            BookingRepository bookingRepository,
                            CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           ItemBookingSummaryService itemBookingSummaryService,
+                           BookingIntervalIndex bookingIntervalIndex,
+                           ItemSearchEngine itemSearchEngine,
+                           ItemSearchCache itemSearchCache,
+                           ItemSuggestTrie itemSuggestTrie,
+                           ItemFacetIndex itemFacetIndex) {
 
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemBookingSummaryService = itemBookingSummaryService;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemSearchCache = itemSearchCache;
+        this.itemSuggestTrie = itemSuggestTrie;
+        this.itemFacetIndex = itemFacetIndex;
     }
 
     @Transactional(readOnly = true)
@@ -63,11 +107,10 @@ public class ItemServiceImpl implements ItemService {
 
         ItemDto itemDto = itemMapper.toItemDto(item);
 
-        itemDto.setComments(commentRepository.findAllByItemId(id)
-                .stream().map(commentMapper::toCommentDto).collect(Collectors.toList()));
+        addComments(List.of(itemDto));
 
         if (item.getOwner().getId().equals(ownerId)) {
-            addBookingInfoForItemOwner(itemDto);
+            addBookingInfoForItemOwner(List.of(itemDto));
         }
 
         return itemDto;
@@ -75,36 +118,51 @@ public class ItemServiceImpl implements ItemService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> findAllItems(Long userId, int from, int size) {
+    public Slice<ItemDto> findAllItems(Long userId, int from, int size) {
+        Slice<Item> items = itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size, Sort.by("id")));
 
-        List<ItemDto> itemDtoList = itemRepository
-                .findAllByOwnerId(userId, PageRequest.of(from / size, size, Sort.by("id")))
+        List<ItemDto> itemDtoList = items
                 .stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
 
-        itemDtoList.forEach(itemDto -> {
-            addBookingInfoForItemOwner(itemDto);
-
-            itemDto.setComments(commentRepository.findAllByItemId(itemDto.getId())
-                    .stream().map(commentMapper::toCommentDto).collect(Collectors.toList()));
-        });
+        addBookingInfoForItemOwner(itemDtoList);
+        addComments(itemDtoList);
 
-        return itemDtoList;
+        return new SliceImpl<>(itemDtoList, items.getPageable(), items.hasNext());
     }
 
-    private ItemDto addBookingInfoForItemOwner(ItemDto itemDtoWithDate) {
-        Booking lastBooking = bookingRepository.findBookingByItemWithDateBefore(itemDtoWithDate.getId(),
-                LocalDateTime.now());
-        Booking nextBooking = bookingRepository.findBookingByItemWithDateAfter(itemDtoWithDate.getId(),
-                LocalDateTime.now());
-        if (lastBooking != null && lastBooking.getStatus().equals(Status.APPROVED)) {
-            itemDtoWithDate.setLastBooking(bookingMapper.toBookingCreationDto(lastBooking));
+    private void addComments(List<ItemDto> itemDtoList) {
+        if (itemDtoList.isEmpty()) {
+            return;
         }
-        if (nextBooking != null && !nextBooking.getStatus().equals(Status.REJECTED)) {
-            itemDtoWithDate.setNextBooking(bookingMapper.toBookingCreationDto(nextBooking));
+        List<Long> itemIds = itemDtoList.stream().map(ItemDto::getId).collect(Collectors.toList());
+
+        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(commentMapper::toCommentDto, Collectors.toList())));
+
+        itemDtoList.forEach(itemDto -> itemDto.setComments(commentsByItemId.getOrDefault(itemDto.getId(),
+                new ArrayList<>())));
+    }
+
+    private void addBookingInfoForItemOwner(List<ItemDto> itemDtoList) {
+        Map<Long, ItemBookingSummary> summariesByItemId = itemBookingSummaryService.findByItemIds(
+                itemDtoList.stream().map(ItemDto::getId).collect(Collectors.toList()));
+
+        for (ItemDto itemDto : itemDtoList) {
+            ItemBookingSummary summary = summariesByItemId.get(itemDto.getId());
+            if (summary == null) {
+                continue;
+            }
+            if (summary.getLastBookingId() != null) {
+                itemDto.setLastBooking(bookingMapper.toLastBookingDto(summary));
+            }
+            if (summary.getNextBookingId() != null) {
+                itemDto.setNextBooking(bookingMapper.toNextBookingDto(summary));
+            }
         }
-        return itemDtoWithDate;
     }
 
     @Transactional
@@ -123,10 +181,60 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.save(item);
+        afterCommit(() -> {
+            itemSearchEngine.index(item);
+            itemSuggestTrie.index(item);
+            itemFacetIndex.index(item);
+        });
+        itemSearchCache.invalidate(searchableText(item));
 
         return itemMapper.toItemDto(item);
     }
 
+    @Transactional
+    @Override
+    public List<ItemImportResultDto> createItems(List<ItemDto> itemDtos, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден."));
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<ItemImportResultDto> results = new ArrayList<>(itemDtos.size());
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            Long requestId = itemDto.getRequestId();
+            if (requestId != null && !requests.containsKey(requestId)) {
+                results.add(new ItemImportResultDto(i, null, "Запрос с ID " + requestId + " не найден."));
+                continue;
+            }
+            Item item = itemMapper.toItem(itemDto);
+            item.setOwner(user);
+            item.setRequest(requestId == null ? null : requests.get(requestId));
+            items.add(item);
+            results.add(new ItemImportResultDto(i, null, null));
+        }
+
+        itemRepository.saveAll(items);
+        afterCommit(() -> items.forEach(item -> {
+            itemSearchEngine.index(item);
+            itemSuggestTrie.index(item);
+            itemFacetIndex.index(item);
+        }));
+        itemSearchCache.invalidate(items.stream().map(ItemServiceImpl::searchableText).toArray(String[]::new));
+
+        Iterator<Item> created = items.iterator();
+        results.stream()
+                .filter(result -> result.getError() == null)
+                .forEach(result -> result.setId(created.next().getId()));
+        return results;
+    }
+
     @Transactional
     @Override
     public ItemDto updateItem(ItemDto itemDto, Long id, Long userId) {
@@ -137,6 +245,7 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Пользователь с id: " + userId + "не является владельцем предмета.");
         }
 
+        String previousText = searchableText(item);
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
         }
@@ -147,31 +256,100 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
 
-        return itemMapper.toItemDto(itemRepository.save(item));
+        itemRepository.save(item);
+        afterCommit(() -> {
+            itemSearchEngine.index(item);
+            itemSuggestTrie.index(item);
+        });
+        itemSearchCache.invalidate(previousText, searchableText(item));
+
+        return itemMapper.toItemDto(item);
     }
 
     @Override
     public void deleteItem(Long id) {
+        itemRepository.findById(id)
+                .ifPresent(item -> itemSearchCache.invalidate(searchableText(item)));
         itemRepository.deleteById(id);
+        afterCommit(() -> {
+            itemSearchEngine.remove(id);
+            itemSuggestTrie.remove(id);
+            itemFacetIndex.remove(id);
+        });
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> search(String text, int from, int size) {
-        List<ItemDto> searchResult = new ArrayList<>();
-
+    public Slice<ItemDto> search(String text, int from, int size) {
+        Pageable pageable = PageRequest.of(from / size, size);
         if (text.isEmpty() || text.isBlank()) {
-            return searchResult;
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
         }
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<ItemDto> cached = itemSearchCache.get(text, from, size);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Long> ids = itemSearchEngine.search(text, from, size + 1);
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+        Slice<ItemDto> result = new SliceImpl<>(hydrate(ids), pageable, hasMore);
+        itemSearchCache.put(text, from, size, result);
+
+        return result;
+    }
 
-        searchResult = itemRepository.search(text, pageable)
+    @Transactional(readOnly = true)
+    @Override
+    public FacetedSearchDto searchFaceted(String text, ItemSearchFilter filter, int from, int size) {
+        LocalDate availableFrom = filter.getAvailableFrom();
+        LocalDate availableTo = filter.getAvailableTo();
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new BadRequestException("Период доступности должен быть задан обеими датами.");
+        }
+        if (availableFrom != null && availableFrom.isAfter(availableTo)) {
+            throw new BadRequestException("Дата начала периода позже даты окончания.");
+        }
+        if (availableFrom != null && availableFrom.plusDays(MAX_AVAILABILITY_DAYS).isBefore(availableTo)) {
+            throw new BadRequestException("Период доступности длиннее " + MAX_AVAILABILITY_DAYS + " дней.");
+        }
+        if (text.isBlank()) {
+            return new FacetedSearchDto(new ArrayList<>(), false, itemFacetIndex.count(List.of()));
+        }
+
+        List<Long> matched = itemSearchEngine.search(text, 0, Integer.MAX_VALUE);
+        IdBitmap booked = availableFrom == null || matched.isEmpty() ? new IdBitmap()
+                : IdBitmap.of(bookingRepository.findBookedItemIds(matched, availableFrom.atStartOfDay(),
+                        availableTo.plusDays(1).atStartOfDay()));
+        List<Long> ids = itemFacetIndex.filter(matched, filter, booked);
+
+        List<Long> page = ids.subList(Math.min(from, ids.size()), Math.min(from + size, ids.size()));
+        return new FacetedSearchDto(hydrate(page), ids.size() > from + size, itemFacetIndex.count(ids));
+    }
+
+    private List<ItemDto> hydrate(List<Long> ids) {
+        Map<Long, Item> itemsById = itemRepository.findAllByIdIn(ids)
                 .stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<ItemDto> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = itemsById.get(id);
+            if (item == null) {
+                // Удаление ещё не дошло до индекса — пропускаем, индекс поправит сам удаляющий.
+                continue;
+            }
+            items.add(itemMapper.toItemDto(item));
+        }
+        return items;
+    }
 
-        return searchResult;
+    @Override
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        return itemSuggestTrie.suggest(prefix, limit);
     }
 
     @Override
@@ -193,7 +371,49 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
         commentRepository.save(comment);
+        afterCommit(() -> itemFacetIndex.onCommented(itemId));
 
         return commentMapper.toCommentDto(comment);
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailabilityDto> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Предмет с id " + itemId + " не найден."));
+
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Дата начала периода позже даты окончания.");
+        }
+
+        if (!item.getAvailable()) {
+            return new ArrayList<>();
+        }
+
+        return bookingIntervalIndex.findFreeDays(itemId, from, to)
+                .stream()
+                .map(itemMapper::toAvailabilityDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Поисковый индекс, дерево подсказок и фасеты меняются только после фиксации транзакции: иначе
+     * параллельный поиск найдёт id, которого в базе ещё нет. Вне транзакции изменение применяется сразу.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String searchableText(Item item) {
+        return item.getName() + " " + item.getDescription();
+    }
 }
@@ -3,23 +3,59 @@ package ru.practicum.shareit.user.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.cache.BookingCountsCache;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemFacetIndex;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestTrie;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestTrie itemSuggestTrie;
+    private final ItemFacetIndex itemFacetIndex;
+    private final BookingCountsCache bookingCountsCache;
     private final UserMapper mapper = new UserMapper();
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ItemRepository itemRepository,
+                           BookingRepository bookingRepository, BookingIntervalIndex bookingIntervalIndex,
+                           ItemBookingSummaryService itemBookingSummaryService,
+                           ItemSearchEngine itemSearchEngine, ItemSearchCache itemSearchCache,
+                           ItemSuggestTrie itemSuggestTrie, ItemFacetIndex itemFacetIndex,
+                           BookingCountsCache bookingCountsCache) {
         this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemBookingSummaryService = itemBookingSummaryService;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemSearchCache = itemSearchCache;
+        this.itemSuggestTrie = itemSuggestTrie;
+        this.itemFacetIndex = itemFacetIndex;
+        this.bookingCountsCache = bookingCountsCache;
     }
 
     @Transactional(readOnly = true)
@@ -66,8 +102,41 @@ public class UserServiceImpl implements UserService {
         return mapper.toUserDto(userRepository.save(newUser));
     }
 
+    @Transactional
     @Override
     public void deleteUser(Long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
+        // брони пользователя на чужие предметы удаляются каскадом, индекс о них не узнает
+        Set<Long> bookedItemIds = new HashSet<>(bookingRepository.findItemIdsByBookerId(userId));
+        bookedItemIds.removeAll(itemIds);
         userRepository.deleteById(userId);
+        userRepository.flush();
+        // сводки чужих предметов могли ссылаться на удалённые брони
+        itemBookingSummaryService.recompute(bookedItemIds);
+        bookedItemIds.addAll(itemIds);
+        bookingIntervalIndex.evictAfterCompletion(bookedItemIds);
+        itemSearchCache.invalidateAll();
+        bookingCountsCache.invalidateAll();
+        afterCommit(() -> itemIds.forEach(itemId -> {
+            itemSearchEngine.remove(itemId);
+            itemSuggestTrie.remove(itemId);
+            itemFacetIndex.remove(itemId);
+        }));
+    }
+
+    /**
+     * Поисковый индекс, дерево подсказок и фасеты забывают предметы только после фиксации удаления.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,161 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов на эндпоинт при ленивых связях и графах сущностей. Запросы идут через MockMvc
+ * без общей транзакции, поэтому в счёт попадает и сериализация ответа.
+ */
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"db.name=test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.booking-summary.roll-forward-delay=3600000"})
+class FetchPlanStatementCountTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private BookingService bookingService;
+    private Statistics statistics;
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private ItemRequestDto request;
+    private BookingDto booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.createUser(new UserDto("owner", "fetch-owner@gmail.com"));
+        booker = userService.createUser(new UserDto("booker", "fetch-booker@gmail.com"));
+        request = itemRequestService.createRequest(booker.getId(), new ItemRequestDto(null, "Нужна дрель", null, null));
+        item = itemService.createItem(new ItemDto("Дрель", "Ударная", true, request.getId()), owner.getId());
+        booking = bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2100-01-02T10:00"),
+                LocalDateTime.parse("2100-01-04T10:00"), item.getId()), booker.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(owner.getId());
+        userService.deleteUser(booker.getId());
+    }
+
+    @Test
+    void testGetBookingById() throws Exception {
+        assertThat(statementsFor(get("/bookings/{id}", booking.getId()).header(USER_HEADER, booker.getId())))
+                .as("Бронь, предмет с владельцем и запросом и бронирующий загружаются одним запросом.")
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testGetBookingLists() throws Exception {
+        assertThat(statementsFor(get("/bookings").header(USER_HEADER, booker.getId())))
+                .as("Проверка пользователя и одна выборка проекции броней.").isEqualTo(2);
+        assertThat(statementsFor(get("/bookings/owner").header(USER_HEADER, owner.getId()))).isEqualTo(2);
+    }
+
+    @Test
+    void testGetBookingCounts() throws Exception {
+        assertThat(statementsFor(get("/bookings/counts").header(USER_HEADER, booker.getId())))
+                .as("Проверка пользователя и один агрегирующий запрос.").isEqualTo(2);
+        assertThat(statementsFor(get("/bookings/counts").header(USER_HEADER, booker.getId())))
+                .as("Повторный запрос счётчиков берётся из кэша.").isEqualTo(1);
+        assertThat(statementsFor(get("/bookings/owner/counts").header(USER_HEADER, owner.getId()))).isEqualTo(2);
+    }
+
+    @Test
+    void testCreateAndApproveBooking() throws Exception {
+        assertThat(statementsFor(post("/bookings")
+                .header(USER_HEADER, booker.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"start\":\"2100-02-02T10:00:00\",\"end\":\"2100-02-04T10:00:00\",\"itemId\":"
+                        + item.getId() + "}")))
+                .as("Пользователь, предмет с графом, вставка брони, блокировка и вставка сводки.")
+                .isEqualTo(5);
+        assertThat(statementsFor(patch("/bookings/{id}", booking.getId())
+                .param("approved", "true")
+                .header(USER_HEADER, owner.getId())))
+                .as("Условное обновление, бронь с графом, блокировка и обновление сводки.")
+                .isEqualTo(4);
+    }
+
+    @Test
+    void testItemEndpoints() throws Exception {
+        assertThat(statementsFor(get("/items/{id}", item.getId()).header(USER_HEADER, owner.getId())))
+                .as("Предмет, комментарии и сводка бронирований.").isEqualTo(3);
+        assertThat(statementsFor(get("/items").header(USER_HEADER, owner.getId()))).isEqualTo(3);
+        assertThat(statementsFor(get("/items/search").param("text", "дрель")))
+                .as("Владелец и запрос найденных предметов не нужны.").isEqualTo(1);
+    }
+
+    @Test
+    void testRequestEndpoints() throws Exception {
+        assertThat(statementsFor(get("/requests").header(USER_HEADER, booker.getId())))
+                .as("Пользователь, запросы и предметы по запросу без автора запроса.").isEqualTo(3);
+        assertThat(statementsFor(get("/requests/all").header(USER_HEADER, owner.getId()))).isEqualTo(3);
+        assertThat(statementsFor(get("/requests/{id}", request.getId()).header(USER_HEADER, owner.getId())))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void testLazyAssociationsAreSerialized() throws Exception {
+        mockMvc.perform(get("/bookings/{id}", booking.getId()).header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.owner.id").value(owner.getId()))
+                .andExpect(jsonPath("$.item.request.requestor.id").value(booker.getId()))
+                .andExpect(jsonPath("$.booker.name").value("booker"));
+        mockMvc.perform(get("/bookings/owner").header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item.id").value(item.getId()))
+                .andExpect(jsonPath("$[0].item.name").value(item.getName()))
+                .andExpect(jsonPath("$[0].item.owner").doesNotExist())
+                .andExpect(jsonPath("$[0].booker.id").value(booker.getId()))
+                .andExpect(jsonPath("$[0].booker.name").doesNotExist());
+    }
+
+    private long statementsFor(MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
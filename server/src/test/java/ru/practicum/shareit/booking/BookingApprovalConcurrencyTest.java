@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test"})
+class BookingApprovalConcurrencyTest {
+    private static final int APPROVERS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    private UserDto owner;
+    private UserDto booker;
+    private BookingDto booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "concurrent-owner@gmail.com"));
+        booker = userService.createUser(new UserDto("booker", "concurrent-booker@gmail.com"));
+        ItemDto item = itemService.createItem(new ItemDto("item", "item description", true, null),
+                owner.getId());
+        booking = bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2100-09-01T01:00"),
+                LocalDateTime.parse("2110-09-01T01:00"), item.getId()), booker.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(owner.getId());
+        userService.deleteUser(booker.getId());
+    }
+
+    @Test
+    void testOnlyOneConcurrentApprovalWins() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(APPROVERS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < APPROVERS; i++) {
+                boolean approved = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        bookingService.responseByOwner(booking.getId(), owner.getId(), approved);
+                        return true;
+                    } catch (BadRequestException e) {
+                        return false;
+                    }
+                }));
+            }
+            startSignal.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    winners++;
+                }
+            }
+
+            assertThat(winners).as("Статус брони должен изменить ровно один запрос.").isEqualTo(1);
+            assertThat(bookingService.getBookingById(booking.getId(), owner.getId()).getStatus())
+                    .isIn(Status.APPROVED, Status.REJECTED);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
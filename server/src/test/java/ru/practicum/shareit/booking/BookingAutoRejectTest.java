@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test",
+        "shareit.booking-summary.roll-forward-delay=3600000",
+        "shareit.booking.reject-overlapping-on-approve=true"})
+class BookingAutoRejectTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    private UserDto owner;
+    private UserDto booker;
+    private UserDto anotherBooker;
+    private ItemDto item;
+    private ItemDto anotherItem;
+    private final LocalDateTime origin = LocalDateTime.parse("2100-03-01T10:00");
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "auto-reject-owner@gmail.com"));
+        booker = userService.createUser(new UserDto("booker", "auto-reject-booker@gmail.com"));
+        anotherBooker = userService.createUser(new UserDto("another", "auto-reject-another@gmail.com"));
+        item = itemService.createItem(new ItemDto("Лодка", "Надувная", true, null), owner.getId());
+        anotherItem = itemService.createItem(new ItemDto("Весло", "Карбон", true, null), owner.getId());
+    }
+
+    @Test
+    void testApproveRejectsOverlappingWaitingBookings() {
+        BookingDto approved = book(item, booker, 0, 4);
+        BookingDto overlapsStart = book(item, anotherBooker, -1, 1);
+        BookingDto inside = book(item, anotherBooker, 1, 2);
+        BookingDto adjacent = book(item, anotherBooker, 4, 6);
+        BookingDto otherItem = book(anotherItem, anotherBooker, 0, 4);
+
+        BookingDto result = bookingService.responseByOwner(approved.getId(), owner.getId(), true);
+
+        assertThat(result.getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(result.getRejectedBookingIds()).as("Отклоняются только пересекающиеся брони этого предмета.")
+                .containsExactly(overlapsStart.getId(), inside.getId());
+        assertThat(statusOf(overlapsStart)).isEqualTo(Status.REJECTED);
+        assertThat(statusOf(inside)).isEqualTo(Status.REJECTED);
+        assertThat(statusOf(adjacent)).as("Смежная бронь не пересекается.").isEqualTo(Status.WAITING);
+        assertThat(statusOf(otherItem)).isEqualTo(Status.WAITING);
+    }
+
+    @Test
+    void testApproveWithoutOverlapsReturnsEmptyList() {
+        BookingDto approved = book(item, booker, 0, 4);
+
+        assertThat(bookingService.responseByOwner(approved.getId(), owner.getId(), true).getRejectedBookingIds())
+                .isEmpty();
+    }
+
+    @Test
+    void testRejectDoesNotTouchOtherBookings() {
+        BookingDto rejected = book(item, booker, 0, 4);
+        BookingDto overlapping = book(item, anotherBooker, 1, 2);
+
+        BookingDto result = bookingService.responseByOwner(rejected.getId(), owner.getId(), false);
+
+        assertThat(result.getRejectedBookingIds()).isNull();
+        assertThat(statusOf(overlapping)).isEqualTo(Status.WAITING);
+    }
+
+    @Test
+    void testCreateBookingConflictsOnlyWithApproved() {
+        BookingDto approved = book(item, booker, 0, 4);
+        bookingService.responseByOwner(approved.getId(), owner.getId(), true);
+
+        assertThrows(BadRequestException.class, () -> book(item, anotherBooker, 2, 6));
+        assertThat(book(item, anotherBooker, 4, 6).getStatus()).isEqualTo(Status.WAITING);
+    }
+
+    @Test
+    void testRespondInBatchRejectsOverlaps() {
+        BookingDto first = book(item, booker, 0, 4);
+        BookingDto second = book(item, anotherBooker, 2, 6);
+        BookingDto swept = book(item, anotherBooker, 3, 5);
+        BookingDto other = book(anotherItem, anotherBooker, 0, 4);
+
+        List<BookingDecisionResultDto> results = bookingService.respondInBatch(owner.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(second.getId(), true),
+                new BookingDecisionDto(other.getId(), true)));
+
+        assertThat(results.get(0).getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(results.get(0).getRejectedBookingIds()).containsExactly(second.getId(), swept.getId());
+        assertThat(results.get(1).getStatus()).as("Пересечение с подтверждением из того же запроса отклоняется.")
+                .isEqualTo(Status.REJECTED);
+        assertThat(results.get(1).getError()).contains(String.valueOf(first.getId()));
+        assertThat(results.get(2).getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(results.get(2).getRejectedBookingIds()).isEmpty();
+        assertThat(statusOf(second)).isEqualTo(Status.REJECTED);
+        assertThat(statusOf(swept)).isEqualTo(Status.REJECTED);
+    }
+
+    private BookingDto book(ItemDto itemDto, UserDto userDto, int fromDay, int toDay) {
+        return bookingService.createBooking(new BookingCreationDto(origin.plusDays(fromDay), origin.plusDays(toDay),
+                itemDto.getId()), userDto.getId());
+    }
+
+    private Status statusOf(BookingDto bookingDto) {
+        return bookingService.getBookingById(bookingDto.getId(), owner.getId()).getStatus();
+    }
+}
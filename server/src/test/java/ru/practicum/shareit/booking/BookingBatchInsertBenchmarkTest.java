@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Вставка 100 тысяч бронирований построчно и пакетами. Идентификаторы в обоих случаях берутся из
+ * последовательности блоками, построчная вставка получается отключением пакетов в сессии.
+ * Тест долгий и запускается только с профилем benchmark: mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.booking-summary.roll-forward-delay=3600000",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"})
+class BookingBatchInsertBenchmarkTest {
+    private static final int BOOKINGS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private final LocalDateTime origin = LocalDateTime.parse("2200-01-01T00:00");
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "batch-owner@gmail.com"));
+        booker = userService.createUser(new UserDto("booker", "batch-booker@gmail.com"));
+        item = itemService.createItem(new ItemDto("Палатка", "Четырёхместная", true, null), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(owner.getId());
+        userService.deleteUser(booker.getId());
+    }
+
+    @Test
+    void benchmarkInsertOf100kBookings() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        insert(0, 1);
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        insert(BOOKINGS, null);
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        assertThat(rowByRowStatements).as("Построчно каждая бронь — отдельный запрос.")
+                .isGreaterThanOrEqualTo(BOOKINGS);
+        assertThat(batchedStatements).as("Пакеты и блоки идентификаторов должны сократить число запросов.")
+                .isLessThan(BOOKINGS / 10);
+    }
+
+    private void insert(int offset, Integer batchSize) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int chunk = 0; chunk < BOOKINGS; chunk += CHUNK) {
+            int first = offset + chunk;
+            transaction.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                Item bookedItem = entityManager.getReference(Item.class, item.getId());
+                User bookedBy = entityManager.getReference(User.class, booker.getId());
+                for (int i = first; i < first + CHUNK; i++) {
+                    entityManager.persist(new Booking(null, origin.plusHours(2L * i), origin.plusHours(2L * i + 1),
+                            bookedItem, bookedBy, Status.WAITING));
+                }
+            });
+        }
+    }
+}
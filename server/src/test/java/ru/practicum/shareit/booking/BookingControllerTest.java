@@ -8,8 +8,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.time.LocalDateTime;
@@ -18,6 +22,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +37,7 @@ class BookingControllerTest {
     private MockMvc mockMvc;
 
     private BookingDto bookingDto;
+    private BookingListDto bookingListDto;
     private BookingCreationDto bookingCreationDto;
     private final LocalDateTime start = LocalDateTime.parse("2100-09-01T01:00");
     private final LocalDateTime end = LocalDateTime.parse("2110-09-01T01:00");
@@ -40,6 +46,7 @@ class BookingControllerTest {
     @BeforeEach
     void setUp() {
         bookingDto = new BookingDto(1L, start, end, null, null, Status.WAITING);
+        bookingListDto = new BookingListDto(1L, start, end, Status.WAITING, 1L, "item", 2L);
         bookingCreationDto = new BookingCreationDto(1L, start, end, null, null);
     }
 
@@ -92,9 +99,43 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(Status.WAITING.toString()));
     }
 
+    @Test
+    void testGetBookingCounts() throws Exception {
+        when(service.getBookingCountsByUserId(1L)).thenReturn(new BookingCountsDto(3, 1, 1, 1, 2, 0, 0));
+        when(service.getBookingCountsByOwnerId(2L)).thenReturn(new BookingCountsDto(1, 0, 0, 1, 1, 0, 0));
+
+        mockMvc.perform(get("/bookings/counts").header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(3))
+                .andExpect(jsonPath("$.current").value(1))
+                .andExpect(jsonPath("$.waiting").value(2));
+        mockMvc.perform(get("/bookings/owner/counts").header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.future").value(1))
+                .andExpect(jsonPath("$.past").value(0));
+    }
+
+    @Test
+    void testRespondInBatch() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false));
+        when(service.respondInBatch(1L, decisions)).thenReturn(List.of(
+                new BookingDecisionResultDto(1L, Status.APPROVED, null),
+                new BookingDecisionResultDto(2L, Status.APPROVED, "Статус ожидания уже был изменен владельцем.")));
+
+        mockMvc.perform(
+                        patch("/bookings/owner/batch")
+                                .content(mapper.writeValueAsString(decisions))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("X-Sharer-User-Id", 1L)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(Status.APPROVED.toString()))
+                .andExpect(jsonPath("$[1].error").value("Статус ожидания уже был изменен владельцем."));
+    }
+
     @Test
     void testGetAllBookingsByUserId() throws Exception {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(bookingListDto);
         when(service.getAllBookingsByUserId(anyLong(), any(), anyInt(), anyInt())).thenReturn(bookings);
 
         mockMvc.perform(
@@ -102,12 +143,16 @@ class BookingControllerTest {
                                 .header("X-Sharer-User-Id", 1L)
                 )
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(bookings.size()));
+                .andExpect(jsonPath("$.size()").value(bookings.size()))
+                .andExpect(jsonPath("$[0].item.id").value(1L))
+                .andExpect(jsonPath("$[0].item.name").value("item"))
+                .andExpect(jsonPath("$[0].booker.id").value(2L))
+                .andExpect(jsonPath("$[0].status").value(Status.WAITING.toString()));
     }
 
     @Test
     void testGetAllBookingsByOwnerId() throws Exception {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(bookingListDto);
         when(service.getAllBookingsByOwnerId(anyLong(), any(), anyInt(), anyInt())).thenReturn(bookings);
 
         mockMvc.perform(
@@ -117,4 +162,22 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.size()").value(bookings.size()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAllBookingsByUserIdWithCursor() throws Exception {
+        List<BookingListDto> bookings = List.of(bookingListDto);
+        String cursor = new BookingCursor(end, 2L).encode();
+        when(service.getAllBookingsByUserIdAfter(anyLong(), any(), any(BookingCursor.class), anyInt()))
+                .thenReturn(bookings);
+
+        mockMvc.perform(
+                        get("/bookings")
+                                .param("cursor", cursor)
+                                .param("size", "1")
+                                .header("X-Sharer-User-Id", 1L)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new BookingCursor(start, 1L).encode()))
+                .andExpect(jsonPath("$.size()").value(bookings.size()));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.cache.BookingCountsCache;
+import ru.practicum.shareit.booking.cache.BookingCountsCache.Role;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingCountsCacheTest {
+    private MeterRegistry meterRegistry;
+    private BookingCountsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BookingCountsCache(meterRegistry, 4, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testInvalidateEvictsBothRolesOfUser() {
+        BookingCountsDto counts = counts(3);
+        fill(Role.BOOKER, 1L, counts);
+        fill(Role.OWNER, 1L, counts(1));
+        fill(Role.BOOKER, 2L, counts(2));
+
+        assertThat(cache.get(Role.BOOKER, 1L)).isSameAs(counts);
+
+        cache.invalidate(1L, null);
+
+        assertThat(cache.get(Role.BOOKER, 1L)).isNull();
+        assertThat(cache.get(Role.OWNER, 1L)).isNull();
+        assertThat(cache.get(Role.BOOKER, 2L)).as("Счётчики другого пользователя остаются.").isNotNull();
+        assertThat(meterRegistry.counter("shareit.booking-counts.cache.hits").count()).isEqualTo(2);
+    }
+
+    @Test
+    void testCountsFoundBeforeInvalidationAreNotCached() {
+        assertThat(cache.get(Role.OWNER, 1L)).isNull();
+        cache.invalidate(2L);
+        cache.put(Role.OWNER, 1L, counts(5));
+
+        assertThat(cache.size()).as("Счётчики могли устареть после вытеснения.").isZero();
+
+        assertThat(cache.get(Role.OWNER, 1L)).isNull();
+        cache.invalidateAll();
+        cache.put(Role.OWNER, 1L, counts(5));
+
+        assertThat(cache.size()).isZero();
+
+        cache.put(Role.BOOKER, 1L, counts(5));
+
+        assertThat(cache.size()).as("Без промаха счётчики не кладутся.").isZero();
+    }
+
+    private void fill(Role role, Long userId, BookingCountsDto counts) {
+        cache.get(role, userId);
+        cache.put(role, userId, counts);
+    }
+
+    private static BookingCountsDto counts(long all) {
+        return new BookingCountsDto(all, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test"})
+class BookingCreationStressTest {
+    private static final int THREADS = 16;
+    private static final int ITEMS = 4;
+    private static final int ATTEMPTS_PER_ITEM = 25;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    private UserDto owner;
+    private final List<UserDto> bookers = new ArrayList<>();
+    private final List<ItemDto> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "stress-owner@gmail.com"));
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userService.createUser(new UserDto("booker" + i, "stress-booker" + i + "@gmail.com")));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemService.createItem(new ItemDto("item" + i, "item description", true, null), owner.getId()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(owner.getId());
+        bookers.forEach(booker -> userService.deleteUser(booker.getId()));
+    }
+
+    @Test
+    void testConcurrentBookingsOfSameItemNeverOverlap() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int attempt = 0; attempt < ATTEMPTS_PER_ITEM; attempt++) {
+                for (int i = 0; i < ITEMS; i++) {
+                    Long itemId = items.get(i).getId();
+                    Long bookerId = bookers.get((attempt * ITEMS + i) % THREADS).getId();
+                    LocalDateTime start = LocalDateTime.parse("2100-09-01T01:00").plusDays(attempt % 5);
+                    results.add(executor.submit(() -> {
+                        startSignal.await();
+                        try {
+                            bookingService.createBooking(new BookingCreationDto(start, start.plusDays(10), itemId),
+                                    bookerId);
+                            return true;
+                        } catch (BadRequestException | ConflictException e) {
+                            // ConflictException — блокировка предмета не дождалась очереди, это тоже отказ
+                            return false;
+                        }
+                    }));
+                }
+            }
+            startSignal.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+
+            assertThat(created).as("Для каждого предмета должна создаться ровно одна бронь.").isEqualTo(ITEMS);
+            for (ItemDto item : items) {
+                assertThat(bookingService.getAllBookingsByOwnerId(owner.getId(), "ALL", 0, 100))
+                        .filteredOn(booking -> booking.getItem().getId().equals(item.getId()))
+                        .as("Брони предмета не должны пересекаться.").hasSize(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
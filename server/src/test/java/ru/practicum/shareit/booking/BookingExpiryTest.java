@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingExpiryScheduler;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test",
+        "shareit.booking-summary.roll-forward-delay=3600000",
+        "shareit.booking-expiry.delay=3600000",
+        "shareit.booking-expiry.batch-size=2"})
+class BookingExpiryTest {
+    @Autowired
+    private BookingExpiryScheduler expiryScheduler;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private final LocalDateTime past = LocalDateTime.now().minusDays(30);
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "expiry-owner@gmail.com"));
+        booker = userService.createUser(new UserDto("booker", "expiry-booker@gmail.com"));
+        item = itemService.createItem(new ItemDto("Самокат", "Городской", true, null), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(owner.getId());
+        userService.deleteUser(booker.getId());
+    }
+
+    @Test
+    void testExpireStaleWaitingBookingsInChunks() {
+        List<BookingDto> stale = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stale.add(book(past.plusDays(2L * i), past.plusDays(2L * i + 1)));
+        }
+        BookingDto approved = book(past.plusDays(20), past.plusDays(21));
+        bookingService.responseByOwner(approved.getId(), owner.getId(), true);
+        BookingDto future = book(LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(11));
+        double expiredBefore = meterRegistry.get("shareit.booking.expiry.expired").counter().count();
+
+        expiryScheduler.expire();
+
+        assertThat(stale).extracting(this::statusOf).as("Все просроченные брони должны быть обработаны пачками.")
+                .containsOnly(Status.EXPIRED);
+        assertThat(statusOf(approved)).isEqualTo(Status.APPROVED);
+        assertThat(statusOf(future)).isEqualTo(Status.WAITING);
+        assertThat(meterRegistry.get("shareit.booking.expiry.expired").counter().count() - expiredBefore)
+                .isGreaterThanOrEqualTo(5);
+        assertThat(meterRegistry.get("shareit.booking.expiry.backlog").gauge().value()).isZero();
+        assertThat(meterRegistry.get("shareit.booking.expiry.run").timer().count()).isPositive();
+        assertThat(bookingService.getAllBookingsByUserId(booker.getId(), "EXPIRED", 0, 10)).hasSize(5);
+    }
+
+    @Test
+    void testExpiredBookingNoLongerBlocksDates() {
+        BookingDto stale = book(past, past.plusDays(1));
+
+        expiryScheduler.expire();
+
+        assertThat(book(past, past.plusDays(1)).getStatus())
+                .as("Просроченная бронь не должна занимать даты.").isEqualTo(Status.WAITING);
+        assertThat(statusOf(stale)).isEqualTo(Status.EXPIRED);
+    }
+
+    private BookingDto book(LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(new BookingCreationDto(start, end, item.getId()), booker.getId());
+    }
+
+    private Status statusOf(BookingDto bookingDto) {
+        return bookingService.getBookingById(bookingDto.getId(), booker.getId()).getStatus();
+    }
+}
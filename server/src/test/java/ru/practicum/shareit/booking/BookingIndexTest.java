@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingIndexTest {
+    private static final String ORDER = " order by b.start_date desc, b.id desc limit 20";
+    private static final String BY_BOOKER = "select b.* from bookings b where b.booker_id = 1 ";
+    private static final String BY_OWNER = "select b.* from bookings b join items i on b.item_id = i.id " +
+            "where i.owner_id = 1 ";
+    private static final List<String> STATES = List.of(
+            "",
+            "and b.start_date < localtimestamp and b.end_date > localtimestamp",
+            "and b.end_date < localtimestamp",
+            "and b.start_date > localtimestamp",
+            "and b.status = 'WAITING'");
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:booking_index");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("runscript from 'classpath:/schema.sql'");
+            statement.execute("insert into users (id, name, email) " +
+                    "select x, 'user' || x, 'user' || x || '@gmail.com' from system_range(1, 100)");
+            statement.execute("insert into items (id, name, description, is_available, owner_id) " +
+                    "select x, 'item', 'description', true, mod(x, 100) + 1 from system_range(1, 1000)");
+            statement.execute("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                    "select x, dateadd('DAY', x, timestamp '2000-01-01 00:00:00'), " +
+                    "dateadd('DAY', x + 1, timestamp '2000-01-01 00:00:00'), mod(x, 1000) + 1, mod(x, 100) + 1, " +
+                    "'WAITING' from system_range(1, 20000)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void testBookerFutureQueryUsesCompositeIndex() throws SQLException {
+        assertThat(explain(BY_BOOKER + "and b.start_date > localtimestamp" + ORDER))
+                .as("Поиск будущей брони арендатора должен использовать составной индекс.")
+                .containsIgnoringCase("idx_bookings_booker_start");
+    }
+
+    @Test
+    void testBookerQueriesDoNotScanTable() throws SQLException {
+        for (String state : STATES) {
+            assertThat(explain(BY_BOOKER + state + ORDER))
+                    .as("Поиск брони арендатора не должен сканировать таблицу: " + state)
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    @Test
+    void testOwnerQueriesDoNotScanTables() throws SQLException {
+        for (String state : STATES) {
+            assertThat(explain(BY_OWNER + state + ORDER))
+                    .as("Поиск брони владельца не должен сканировать таблицы: " + state)
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    @Test
+    void testOverlappingWaitingUpdateUsesRangeIndex() throws SQLException {
+        assertThat(explain("update bookings b set b.status = 'REJECTED' where b.item_id = 1 and b.id <> 1000 " +
+                "and b.status = 'WAITING' and b.start_date < timestamp '2010-01-01 00:00:00' " +
+                "and b.end_date > timestamp '2009-01-01 00:00:00'"))
+                .as("Отклонение пересекающихся броней должно идти по индексу предмета и диапазона.")
+                .containsIgnoringCase("idx_bookings_item_range");
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("explain " + sql)) {
+            plan.next();
+            return plan.getString(1);
+        }
+    }
+}
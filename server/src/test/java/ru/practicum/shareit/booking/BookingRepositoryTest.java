@@ -4,8 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.NearestBooking;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -16,7 +19,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
 class BookingRepositoryTest {
@@ -26,6 +28,9 @@ class BookingRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    private final BookingMapper mapper = new BookingMapper();
     private User owner;
     private User booker;
     private Booking booking;
@@ -47,123 +52,175 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void testFindAllByBooker() {
+    void testFindBookingsByBooker() {
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByBooker(booker, PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони арендатора.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(bookerFilter(BookingState.ALL, null), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони арендатора.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByBookerAndStartBeforeAndEndAfter() {
+    void testFindBookingsByBookerWithCurrentState() {
         booking.setStart(LocalDateTime.parse("1900-09-01T01:00"));
         booking.setEnd(LocalDateTime.parse("3000-09-01T01:00"));
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(booker, LocalDateTime.now(), LocalDateTime.now(),
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске актуальной брони арендатора.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(bookerFilter(BookingState.CURRENT, null), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске актуальной брони арендатора.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByBookerAndEndBefore() {
+    void testFindBookingsByBookerWithPastState() {
         booking.setStart(LocalDateTime.parse("1900-09-01T01:00"));
         booking.setEnd(LocalDateTime.parse("2000-09-01T01:00"));
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByBookerAndEndBefore(booker, LocalDateTime.now(),
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске прошлой брони арендатора.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(bookerFilter(BookingState.PAST, null), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске прошлой брони арендатора.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByBookerAndStartAfter() {
+    void testFindBookingsByBookerWithFutureState() {
         booking.setStart(LocalDateTime.parse("2500-09-01T01:00"));
         booking.setEnd(LocalDateTime.parse("2600-09-01T01:00"));
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByBookerAndStartAfter(booker, LocalDateTime.now(),
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске будущей брони арендатора.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(bookerFilter(BookingState.FUTURE, null), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске будущей брони арендатора.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByBookerAndStatusEquals() {
+    void testFindBookingsByBookerWithStatus() {
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByBookerAndStatusEquals(booker, Status.WAITING,
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони арендатора со статусом.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(bookerFilter(BookingState.WAITING, null), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони арендатора со статусом.").contains(mapper.toBookingListDto(booking));
+        assertThat(bookingRepository.findBookings(bookerFilter(BookingState.REJECTED, null), 0, 2))
+                .as("Отклоненных бронирований нет.").isEmpty();
     }
 
     @Test
-    void testFindAllByItemOwner() {
+    void testFindBookingsByItemOwner() {
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwner(owner,
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони владельца.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(ownerFilter(BookingState.ALL), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони владельца.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByItemOwnerAndStartBeforeAndEndAfter() {
+    void testFindBookingsByItemOwnerWithCurrentState() {
         booking.setStart(LocalDateTime.parse("1900-09-01T01:00"));
         booking.setEnd(LocalDateTime.parse("2600-09-01T01:00"));
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(owner, LocalDateTime.now(), LocalDateTime.now(),
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске актуальной брони владельца.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(ownerFilter(BookingState.CURRENT), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске актуальной брони владельца.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByItemOwnerAndEndBefore() {
+    void testFindBookingsByItemOwnerWithPastState() {
         booking.setStart(LocalDateTime.parse("1900-09-01T01:00"));
         booking.setEnd(LocalDateTime.parse("2000-09-01T01:00"));
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndEndBefore(owner, LocalDateTime.now(),
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске прошлой брони владельца.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(ownerFilter(BookingState.PAST), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске прошлой брони владельца.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByItemOwnerAndStartAfter() {
+    void testFindBookingsByItemOwnerWithFutureState() {
         booking.setStart(LocalDateTime.parse("3000-09-01T01:00"));
         booking.setEnd(LocalDateTime.parse("3500-09-01T01:00"));
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStartAfter(owner, LocalDateTime.now(),
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске будущей брони владельца.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(ownerFilter(BookingState.FUTURE), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске будущей брони владельца.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindAllByItemOwnerAndStatusEquals() {
+    void testFindBookingsByItemOwnerWithStatus() {
         booking = bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStatusEquals(owner, Status.WAITING,
-                PageRequest.of(0, 2));
-        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони владельца со статусом.").contains(booking);
+        List<BookingListDto> bookings = bookingRepository.findBookings(ownerFilter(BookingState.WAITING), 0, 2);
+        assertThat(bookings).hasSize(1).as("Ошибка при поиске брони владельца со статусом.").contains(mapper.toBookingListDto(booking));
     }
 
     @Test
-    void testFindBookingByItemWithDateBefore() {
+    void testFindBookingsWithOffsetAndCursor() {
+        booking = bookingRepository.save(booking);
+        Booking earlier = bookingRepository.save(new Booking(null, start.minusYears(5), start.minusYears(4), item,
+                booker, Status.WAITING));
+
+        assertThat(bookingRepository.findBookings(bookerFilter(BookingState.ALL, null), 1, 1))
+                .as("Ошибка при поиске брони арендатора со смещением.").containsExactly(mapper.toBookingListDto(earlier));
+        assertThat(bookingRepository.findBookings(bookerFilter(BookingState.ALL,
+                new BookingCursor(booking.getStart(), booking.getId())), 0, 2))
+                .as("Ошибка при поиске брони арендатора по курсору.").containsExactly(mapper.toBookingListDto(earlier));
+    }
+
+    @Test
+    void testFindLastAndNextBookings() {
         booking.setStart(LocalDateTime.parse("1000-09-01T01:00"));
-        booking.setEnd(LocalDateTime.parse("3500-09-01T01:00"));
+        booking.setEnd(LocalDateTime.parse("1100-09-01T01:00"));
+        booking.setStatus(Status.APPROVED);
         booking = bookingRepository.save(booking);
+        bookingRepository.save(new Booking(null, LocalDateTime.parse("1200-09-01T01:00"),
+                LocalDateTime.parse("1300-09-01T01:00"), item, booker, Status.WAITING));
+        bookingRepository.save(new Booking(null, start.minusYears(50), start.minusYears(40), item, booker,
+                Status.REJECTED));
+        Booking next = bookingRepository.save(new Booking(null, start, end, item, booker, Status.WAITING));
+        bookingRepository.save(new Booking(null, end, end.plusYears(1), item, booker, Status.WAITING));
+
+        List<NearestBooking> bookings = bookingRepository.findLastAndNextBookings(List.of(item.getId()),
+                LocalDateTime.now());
+
+        assertThat(bookings).hasSize(2).as("Ошибка при поиске ближайших броней предмета.");
+        assertThat(bookings).filteredOn(NearestBooking::isLast).singleElement()
+                .extracting(NearestBooking::getId).isEqualTo(booking.getId());
+        assertThat(bookings).filteredOn(nearest -> !nearest.isLast()).singleElement()
+                .extracting(NearestBooking::getId).isEqualTo(next.getId());
+    }
 
-        assertEquals(booking, bookingRepository.findBookingByItemWithDateBefore(item.getId(), LocalDateTime.now()),
-                "Ошибка при поиске прошлой брони предмета.");
+    @Test
+    void testFindLastAndNextBookingsRules() {
+        LocalDateTime now = LocalDateTime.parse("2050-01-01T12:00");
+        Booking approved = bookingRepository.save(new Booking(null, now.minusDays(10), now.minusDays(9), item, booker,
+                Status.APPROVED));
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker, Status.WAITING));
+        bookingRepository.save(new Booking(null, now, now.plusDays(1), item, booker, Status.WAITING));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, Status.REJECTED));
+        Booking next = bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item, booker,
+                Status.WAITING));
+
+        List<NearestBooking> bookings = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+
+        assertThat(bookings).filteredOn(NearestBooking::isLast).singleElement()
+                .as("Более поздняя неподтверждённая бронь не скрывает подтверждённую.")
+                .extracting(NearestBooking::getId).isEqualTo(approved.getId());
+        assertThat(bookings).filteredOn(nearest -> !nearest.isLast()).singleElement()
+                .as("Бронь с началом ровно в now и отклонённая бронь не считаются следующими.")
+                .extracting(NearestBooking::getId).isEqualTo(next.getId());
     }
 
     @Test
-    void testFindBookingByItemWithDateAfter() {
-        booking.setStart(LocalDateTime.parse("2500-09-01T01:00"));
-        booking.setEnd(LocalDateTime.parse("3500-09-01T01:00"));
+    void testUpdateStatusIfWaiting() {
         booking = bookingRepository.save(booking);
 
-        assertEquals(booking, bookingRepository.findBookingByItemWithDateAfter(item.getId(), LocalDateTime.now()),
-                "Ошибка при поиске будущей брони предмета.");
+        assertThat(bookingRepository.updateStatusIfWaiting(booking.getId(), booker.getId(), Status.APPROVED))
+                .as("Статус может изменить только владелец вещи.").isZero();
+        assertThat(bookingRepository.updateStatusIfWaiting(booking.getId(), owner.getId(), Status.APPROVED))
+                .as("Ошибка при подтверждении брони.").isEqualTo(1);
+        assertThat(bookingRepository.updateStatusIfWaiting(booking.getId(), owner.getId(), Status.REJECTED))
+                .as("Статус подтверждённой брони не может измениться.").isZero();
+        entityManager.refresh(booking);
+        assertThat(booking.getStatus()).isEqualTo(Status.APPROVED);
+    }
+
+    private BookingFilter bookerFilter(BookingState state, BookingCursor cursor) {
+        return BookingFilter.ofBooker(booker.getId(), state, cursor);
+    }
+
+    private BookingFilter ownerFilter(BookingState state) {
+        return BookingFilter.ofOwner(owner.getId(), state, null);
     }
 }
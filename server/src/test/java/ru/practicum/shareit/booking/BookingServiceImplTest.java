@@ -6,13 +6,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.UserMapper;
@@ -105,6 +110,24 @@ class BookingServiceImplTest {
                 .contains("Предмет недоступен. Бронирование невозможно.");
     }
 
+    @Test
+    void testCreateBookingWithOverlappingDates() {
+        BookingCreationDto overlapping = new BookingCreationDto(start.plusDays(1), end.plusDays(1), item.getId());
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> bookingService.createBooking(overlapping, anotherUser.getId()));
+        assertThat(ex.getMessage()).as("Сообщение должно совпадать.")
+                .contains("Предмет уже забронирован на выбранные даты. Бронирование невозможно.");
+    }
+
+    @Test
+    void testCreateBookingAfterRejectedOverlap() {
+        bookingService.responseByOwner(bookingDto.getId(), owner.getId(), false);
+        BookingCreationDto overlapping = new BookingCreationDto(start.plusDays(1), end.plusDays(1), item.getId());
+
+        assertThat(bookingService.createBooking(overlapping, anotherUser.getId()).getStatus())
+                .as("Отклоненная бронь не должна блокировать даты.").isEqualTo(Status.WAITING);
+    }
+
     @Test
     void testCreateBookingWhenBookerIsOwner() {
         NotFoundException ex = assertThrows(NotFoundException.class,
@@ -142,6 +165,62 @@ class BookingServiceImplTest {
                 .contains("Доступ невозможен. Пользователь не является хозяином вещи или автором брони.");
     }
 
+    @Test
+    void testRespondInBatch() {
+        LocalDateTime laterStart = LocalDateTime.parse("2120-09-01T01:00");
+        BookingDto rejected = bookingService.createBooking(new BookingCreationDto(laterStart, laterStart.plusDays(2),
+                item.getId()), booker.getId());
+        Item foreignItem = itemMapper.toItem(itemService.createItem(new ItemDto("foreign", "foreign item", true, null),
+                anotherUser.getId()));
+        BookingDto foreign = bookingService.createBooking(new BookingCreationDto(start, end, foreignItem.getId()),
+                booker.getId());
+
+        List<BookingDecisionResultDto> results = bookingService.respondInBatch(owner.getId(), List.of(
+                new BookingDecisionDto(bookingDto.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false),
+                new BookingDecisionDto(foreign.getId(), true),
+                new BookingDecisionDto(bookingDto.getId(), false),
+                new BookingDecisionDto(-1L, true)));
+
+        assertThat(results).extracting(BookingDecisionResultDto::getStatus)
+                .containsExactly(Status.APPROVED, Status.REJECTED, null, null, null);
+        assertThat(results.get(2).getError()).as("Чужая бронь не должна меняться.")
+                .contains("не найдено среди бронирований пользователя");
+        assertThat(results.get(3).getError()).contains("повторно");
+        assertEquals(Status.APPROVED, bookingService.getBookingById(bookingDto.getId(), owner.getId()).getStatus());
+        assertEquals(Status.REJECTED, bookingService.getBookingById(rejected.getId(), owner.getId()).getStatus());
+        assertEquals(Status.WAITING, bookingService.getBookingById(foreign.getId(), booker.getId()).getStatus());
+
+        assertThat(bookingService.createBooking(new BookingCreationDto(laterStart, laterStart.plusDays(1),
+                item.getId()), booker.getId()).getId()).as("Отклонённая бронь должна освободить даты.").isNotNull();
+
+        List<BookingDecisionResultDto> repeated = bookingService.respondInBatch(owner.getId(),
+                List.of(new BookingDecisionDto(bookingDto.getId(), false)));
+        assertThat(repeated).containsExactly(new BookingDecisionResultDto(bookingDto.getId(), Status.APPROVED,
+                "Статус ожидания уже был изменен владельцем."));
+    }
+
+    @Test
+    void testGetBookingCounts() {
+        LocalDateTime pastStart = LocalDateTime.parse("2000-09-01T01:00");
+        bookingService.createBooking(new BookingCreationDto(pastStart, pastStart.plusDays(1), item.getId()),
+                booker.getId());
+
+        assertEquals(new BookingCountsDto(2, 0, 1, 1, 2, 0, 0),
+                bookingService.getBookingCountsByUserId(booker.getId()), "Ошибка в счётчиках арендатора.");
+        assertEquals(new BookingCountsDto(2, 0, 1, 1, 2, 0, 0),
+                bookingService.getBookingCountsByOwnerId(owner.getId()), "Ошибка в счётчиках владельца.");
+        assertEquals(new BookingCountsDto(), bookingService.getBookingCountsByOwnerId(booker.getId()));
+
+        bookingService.responseByOwner(bookingDto.getId(), owner.getId(), false);
+
+        assertThat(bookingService.getBookingCountsByUserId(booker.getId()).getRejected())
+                .as("Изменение брони должно сбросить кэш арендатора.").isEqualTo(1);
+        assertThat(bookingService.getBookingCountsByOwnerId(owner.getId()).getWaiting())
+                .as("Изменение брони должно сбросить кэш владельца.").isEqualTo(1);
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingCountsByUserId(-1L));
+    }
+
     @Test
     void testGetAllBookingsByUserIdWithUserNotFound() {
         NotFoundException ex = assertThrows(NotFoundException.class,
@@ -152,7 +231,7 @@ class BookingServiceImplTest {
 
     @Test
     void testGetAllBookingsByUserIdWithAllState() {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByUserId(booker.getId(), "ALL", 0, 2),
                 "Ошибка при поиске по ID пользователя, ALL");
     }
@@ -163,7 +242,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.parse("2100-09-01T01:00");
         bookingCreationDto = new BookingCreationDto(start, end, item.getId());
         bookingDto = bookingService.createBooking(bookingCreationDto, booker.getId());
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByUserId(booker.getId(), "CURRENT", 0, 2),
                 "Ошибка при поиске по ID пользователя, CURRENT");
     }
@@ -174,21 +253,21 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.parse("1500-09-01T01:00");
         bookingCreationDto = new BookingCreationDto(start, end, item.getId());
         bookingDto = bookingService.createBooking(bookingCreationDto, booker.getId());
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByUserId(booker.getId(), "PAST", 0, 2),
                 "Ошибка при поиске по ID пользователя, PAST");
     }
 
     @Test
     void testGetAllBookingsByUserIdWithFutureState() {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByUserId(booker.getId(), "FUTURE", 0, 2),
                 "Ошибка при поиске по ID пользователя, FUTURE");
     }
 
     @Test
     void testGetAllBookingsByUserIdWithWaitingStatus() {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByUserId(booker.getId(), "WAITING", 0, 2),
                 "Ошибка при поиске по ID пользователя, WAITING");
     }
@@ -196,7 +275,7 @@ class BookingServiceImplTest {
     @Test
     void testGetAllBookingsByUserIdWithRejectedStatus() {
         bookingDto = bookingService.responseByOwner(bookingDto.getId(), owner.getId(), false);
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByUserId(booker.getId(), "REJECTED", 0, 2),
                 "Ошибка при поиске по ID пользователя, REJECTED");
     }
@@ -220,7 +299,7 @@ class BookingServiceImplTest {
 
     @Test
     void testGetAllBookingsByOwnerIdWithAllState() {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByOwnerId(owner.getId(), "ALL", 0, 2),
                 "Ошибка при поиске по ID владельца, ALL");
     }
@@ -231,7 +310,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.parse("2100-09-01T01:00");
         bookingCreationDto = new BookingCreationDto(start, end, item.getId());
         bookingDto = bookingService.createBooking(bookingCreationDto, booker.getId());
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByOwnerId(owner.getId(), "CURRENT", 0, 2),
                 "Ошибка при поиске по ID владельца, CURRENT");
     }
@@ -242,21 +321,21 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.parse("1500-09-01T01:00");
         bookingCreationDto = new BookingCreationDto(start, end, item.getId());
         bookingDto = bookingService.createBooking(bookingCreationDto, booker.getId());
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByOwnerId(owner.getId(), "PAST", 0, 2),
                 "Ошибка при поиске по ID владельца, PAST");
     }
 
     @Test
     void testGetAllBookingsByOwnerIdWithFutureState() {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByOwnerId(owner.getId(), "FUTURE", 0, 2),
                 "Ошибка при поиске по ID владельца, FUTURE");
     }
 
     @Test
     void testGetAllBookingsByOwnerIdWithWaitingStatus() {
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByOwnerId(owner.getId(), "WAITING", 0, 2),
                 "Ошибка при поиске по ID владельца, WAITING");
     }
@@ -264,7 +343,7 @@ class BookingServiceImplTest {
     @Test
     void testGetAllBookingsByOwnerIdWithRejectedStatus() {
         bookingDto = bookingService.responseByOwner(bookingDto.getId(), owner.getId(), false);
-        List<BookingDto> bookings = List.of(bookingDto);
+        List<BookingListDto> bookings = List.of(listDto(bookingDto));
         assertEquals(bookings, bookingService.getAllBookingsByOwnerId(owner.getId(), "REJECTED", 0, 2),
                 "Ошибка при поиске по ID владельца, REJECTED");
     }
@@ -277,4 +356,44 @@ class BookingServiceImplTest {
         assertThat(ex.getMessage()).as("Сообщение должно совпадать.")
                 .contains("Unknown state: UNSUPPORTED_STATUS");
     }
+
+    @Test
+    void testGetAllBookingsByUserIdAfterCursor() {
+        BookingDto earlier = bookingService.createBooking(new BookingCreationDto(start.minusYears(5),
+                start.minusYears(4), item.getId()), booker.getId());
+
+        List<BookingListDto> firstPage = bookingService.getAllBookingsByUserId(booker.getId(), "ALL", 0, 1);
+        assertEquals(List.of(listDto(bookingDto)), firstPage, "Ошибка при получении первой страницы.");
+
+        BookingCursor cursor = BookingCursor.decode(new BookingCursor(bookingDto.getStart(), bookingDto.getId()).encode());
+        assertEquals(List.of(listDto(earlier)), bookingService.getAllBookingsByUserIdAfter(booker.getId(), "ALL", cursor, 1),
+                "Ошибка при получении страницы по курсору.");
+        assertEquals(List.of(listDto(earlier)),
+                bookingService.getAllBookingsByUserIdAfter(booker.getId(), "FUTURE", cursor, 2),
+                "Ошибка при получении страницы по курсору, FUTURE");
+    }
+
+    @Test
+    void testGetAllBookingsByOwnerIdAfterCursor() {
+        BookingDto earlier = bookingService.createBooking(new BookingCreationDto(start.minusYears(5),
+                start.minusYears(4), item.getId()), booker.getId());
+        BookingCursor cursor = new BookingCursor(bookingDto.getStart(), bookingDto.getId());
+
+        assertEquals(List.of(listDto(earlier)),
+                bookingService.getAllBookingsByOwnerIdAfter(owner.getId(), "WAITING", cursor, 2),
+                "Ошибка при получении страницы владельца по курсору.");
+        assertThat(bookingService.getAllBookingsByOwnerIdAfter(owner.getId(), "PAST", cursor, 2))
+                .as("Прошедших бронирований нет.").isEmpty();
+    }
+
+    @Test
+    void testDecodeWrongCursor() {
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> BookingCursor.decode("wrong"));
+        assertThat(ex.getMessage()).as("Сообщение должно совпадать.").contains("Некорректный курсор");
+    }
+
+    private static BookingListDto listDto(BookingDto booking) {
+        return new BookingListDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
 }
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.index.DayBitmap;
+import ru.practicum.shareit.booking.index.DayRange;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayBitmapTest {
+    private final LocalDate origin = LocalDate.parse("2100-01-01");
+
+    @Test
+    void testFreeRanges() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(origin.plusDays(2), origin.plusDays(3));
+        bitmap.set(origin.plusDays(6), origin.plusDays(6));
+
+        assertThat(bitmap.freeRanges(origin, origin.plusDays(9))).as("Свободные отрезки рассчитаны некорректно.")
+                .containsExactly(new DayRange(origin, origin.plusDays(1)),
+                        new DayRange(origin.plusDays(4), origin.plusDays(5)),
+                        new DayRange(origin.plusDays(7), origin.plusDays(9)));
+        assertThat(bitmap.freeRanges(origin.plusDays(2), origin.plusDays(3))).as("Весь период занят.").isEmpty();
+    }
+
+    @Test
+    void testSetFarApartDays() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(origin, origin.plusDays(1));
+        bitmap.set(origin.minusYears(100), origin.minusYears(100));
+
+        assertThat(bitmap.isBooked(origin)).as("Ранний день не должен затирать поздний.").isTrue();
+        assertThat(bitmap.isBooked(origin.plusDays(1))).isTrue();
+        assertThat(bitmap.isBooked(origin.minusYears(100))).isTrue();
+        assertThat(bitmap.isBooked(origin.minusDays(1))).isFalse();
+        assertThat(bitmap.freeRanges(origin.minusDays(1), origin.plusDays(2)))
+                .containsExactly(new DayRange(origin.minusDays(1), origin.minusDays(1)),
+                        new DayRange(origin.plusDays(2), origin.plusDays(2)));
+    }
+
+    @Test
+    void testClear() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(origin, origin.plusDays(4));
+        bitmap.clear(origin.plusDays(1), origin.plusDays(2));
+        bitmap.clear(origin.minusDays(10), origin.minusDays(5));
+
+        assertThat(bitmap.freeRanges(origin, origin.plusDays(4)))
+                .containsExactly(new DayRange(origin.plusDays(1), origin.plusDays(2)));
+
+        bitmap.clear(origin, origin.plusDays(10));
+        assertThat(bitmap.freeRanges(origin, origin.plusDays(4))).as("После очистки все дни свободны.")
+                .containsExactly(new DayRange(origin, origin.plusDays(4)));
+    }
+
+    @Test
+    void testRangesAcrossWordBoundaries() {
+        DayBitmap bitmap = new DayBitmap();
+        LocalDate start = LocalDate.ofEpochDay(64 * 1000 - 3);
+        bitmap.set(start, start.plusDays(130));
+        bitmap.clear(start.plusDays(60), start.plusDays(70));
+
+        assertThat(bitmap.freeRanges(start.minusDays(1), start.plusDays(131)))
+                .containsExactly(new DayRange(start.minusDays(1), start.minusDays(1)),
+                        new DayRange(start.plusDays(60), start.plusDays(70)),
+                        new DayRange(start.plusDays(131), start.plusDays(131)));
+
+        bitmap.clear(start, start.plusDays(130));
+        assertThat(bitmap.freeRanges(start, start.plusDays(130))).as("После очистки все дни свободны.")
+                .containsExactly(new DayRange(start, start.plusDays(130)));
+        assertThat(bitmap.isBooked(LocalDate.ofEpochDay(-1))).isFalse();
+    }
+}
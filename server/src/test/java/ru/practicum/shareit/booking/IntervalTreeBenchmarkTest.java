@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.index.IntervalTree;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Стоимость проверки пересечения в дереве с большой историей бронирований в сравнении с перебором.
+ * Тест долгий и запускается только с профилем benchmark: mvn test -Pbenchmark. Время пишется в лог.
+ */
+@Slf4j
+@Tag("benchmark")
+class IntervalTreeBenchmarkTest {
+    private static final int HISTORY_SIZE = 20_000;
+    private static final int LOOKUPS = 200_000;
+    private static final int SCANS = 2_000;
+    private final LocalDateTime origin = LocalDateTime.parse("2020-01-01T00:00");
+
+    @Test
+    void benchmarkLookupWithLargeHistory() {
+        IntervalTree tree = new IntervalTree();
+        LocalDateTime[][] history = new LocalDateTime[HISTORY_SIZE][];
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            history[i] = new LocalDateTime[]{origin.plusDays(2L * i), origin.plusDays(2L * i + 1)};
+            tree.insert(i, history[i][0], history[i][1]);
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup(tree, random);
+        }
+
+        int found = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += lookup(tree, random) ? 1 : 0;
+        }
+        long treeNanos = (System.nanoTime() - started) / LOOKUPS;
+
+        int scanned = 0;
+        started = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            scanned += scan(history, random) ? 1 : 0;
+        }
+        long scanNanos = (System.nanoTime() - started) / SCANS;
+
+        log.info("IntervalTree: {} бронирований, {} нс на проверку пересечения, перебор — {} нс",
+                HISTORY_SIZE, treeNanos, scanNanos);
+        assertThat(found).as("Часть проверок должна находить пересечения.").isPositive();
+        assertThat(scanned).isPositive();
+    }
+
+    private boolean lookup(IntervalTree tree, Random random) {
+        LocalDateTime start = origin.plusHours(random.nextInt(HISTORY_SIZE * 48));
+        return tree.findOverlap(start, start.plusHours(12)) != null;
+    }
+
+    private boolean scan(LocalDateTime[][] history, Random random) {
+        LocalDateTime start = origin.plusHours(random.nextInt(HISTORY_SIZE * 48));
+        LocalDateTime end = start.plusHours(12);
+        for (LocalDateTime[] interval : history) {
+            if (interval[0].isBefore(end) && start.isBefore(interval[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.index.IntervalTree;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+    private final LocalDateTime origin = LocalDateTime.parse("2020-01-01T00:00");
+
+    @Test
+    void testFindOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1L, origin, origin.plusDays(2));
+        tree.insert(2L, origin.plusDays(5), origin.plusDays(7));
+
+        assertThat(tree.findOverlap(origin.plusDays(1), origin.plusDays(3))).as("Пересечение не найдено.")
+                .isEqualTo(1L);
+        assertThat(tree.findOverlap(origin.plusDays(6), origin.plusDays(8))).as("Пересечение не найдено.")
+                .isEqualTo(2L);
+        assertThat(tree.findOverlap(origin.plusDays(2), origin.plusDays(5))).as("Смежные интервалы не пересекаются.")
+                .isNull();
+    }
+
+    @Test
+    void testRemove() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1L, origin, origin.plusDays(2));
+
+        assertThat(tree.remove(1L, origin)).as("Интервал должен быть удален.").isTrue();
+        assertThat(tree.remove(1L, origin)).as("Интервал уже удален.").isFalse();
+        assertThat(tree.findOverlap(origin, origin.plusDays(1))).as("Удаленный интервал найден.").isNull();
+        assertThat(tree.size()).as("Дерево должно быть пустым.").isZero();
+    }
+
+    @Test
+    void testFindOverlapsMatchesLinearScan() {
+        Random random = new Random(11);
+        IntervalTree tree = new IntervalTree();
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(100_000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(200));
+            tree.insert(i, start, end);
+            intervals.add(new LocalDateTime[]{start, end});
+        }
+
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(100_000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(500));
+            List<Long> expected = new ArrayList<>();
+            for (int id = 0; id < intervals.size(); id++) {
+                if (intervals.get(id)[0].isBefore(end) && start.isBefore(intervals.get(id)[1])) {
+                    expected.add((long) id);
+                }
+            }
+
+            assertThat(tree.findOverlaps(start, end)).as("Результат должен совпадать с полным перебором.")
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void testFindOverlapMatchesLinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(100_000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(200));
+            tree.insert(i, start, end);
+            intervals.add(new LocalDateTime[]{start, end});
+        }
+        for (int i = 0; i < 1_000; i += 3) {
+            tree.remove(i, intervals.get(i)[0]);
+            intervals.set(i, null);
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(100_000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(50));
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval != null && interval[0].isBefore(end) && start.isBefore(interval[1]));
+
+            assertThat(tree.findOverlap(start, end) != null).as("Результат должен совпадать с полным перебором.")
+                    .isEqualTo(expected);
+        }
+    }
+}
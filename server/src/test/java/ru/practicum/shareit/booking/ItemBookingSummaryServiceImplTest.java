@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(properties = {"db.name=test"})
+class ItemBookingSummaryServiceImplTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    private Item item;
+    private User booker;
+    private User owner;
+    private final UserMapper userMapper = new UserMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+
+    @BeforeEach
+    void setUp() {
+        owner = userMapper.toUser(userService.createUser(new UserDto("owner", "owner@gmail.com")));
+        booker = userMapper.toUser(userService.createUser(new UserDto("booker", "booker@gmail.com")));
+
+        item = new Item("item", "item description", true, owner, null);
+        item = itemMapper.toItem(itemService.createItem(itemMapper.toItemDto(item), owner.getId()));
+    }
+
+    @Test
+    void testSummaryTracksCreateAndApprove() {
+        BookingDto past = book("1000-09-01T01:00", "1100-09-01T01:00");
+        BookingDto later = book("2300-09-01T01:00", "2400-09-01T01:00");
+        BookingDto next = book("2100-09-01T01:00", "2200-09-01T01:00");
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getTotalBookings()).as("Неверное количество броней.").isEqualTo(3);
+        assertThat(summary.getLastBookingId()).as("Неподтверждённая бронь не может быть последней.").isNull();
+        assertThat(summary.getNextBookingId()).as("Ближайшая бронь некорректна.").isEqualTo(next.getId());
+        assertThat(later.getId()).isNotEqualTo(summary.getNextBookingId());
+
+        bookingService.responseByOwner(past.getId(), owner.getId(), true);
+
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId()).as("Последняя бронь некорректна.").isEqualTo(past.getId());
+        assertThat(summary.getLastBookerId()).isEqualTo(booker.getId());
+    }
+
+    @Test
+    void testRejectNextBookingPromotesFollowingOne() {
+        BookingDto next = book("2100-09-01T01:00", "2200-09-01T01:00");
+        BookingDto later = book("2300-09-01T01:00", "2400-09-01T01:00");
+
+        bookingService.responseByOwner(next.getId(), owner.getId(), false);
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getNextBookingId()).as("После отклонения ближайшей брони должна стать следующая.")
+                .isEqualTo(later.getId());
+    }
+
+    @Test
+    void testRollForwardMovesStartedBookingToLast() {
+        BookingDto next = book("2100-09-01T01:00", "2200-09-01T01:00");
+        bookingService.responseByOwner(next.getId(), owner.getId(), true);
+
+        Booking started = bookingRepository.findById(next.getId()).orElseThrow();
+        started.setStart(LocalDateTime.now().minusHours(1));
+        started.setEnd(LocalDateTime.now().plusHours(1));
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        summary.setNextBookingStart(started.getStart());
+
+        assertThat(summaryService.rollForward(10)).as("Сводка с начавшейся бронью должна обновиться.")
+                .isEqualTo(1);
+
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId()).as("Начавшаяся бронь должна стать последней.").isEqualTo(next.getId());
+        assertThat(summary.getNextBookingId()).as("Ближайших броней не осталось.").isNull();
+        assertThat(summaryService.rollForward(10)).isZero();
+    }
+
+    private BookingDto book(String start, String end) {
+        return bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse(start),
+                LocalDateTime.parse(end), item.getId()), booker.getId());
+    }
+}
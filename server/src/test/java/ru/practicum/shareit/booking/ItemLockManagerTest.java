@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemLockManagerTest {
+    private MeterRegistry meterRegistry;
+    private ItemLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new ItemLockManager(meterRegistry, 8, 50);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        completeTransaction();
+    }
+
+    @Test
+    void testLockTimesOutWhileAnotherTransactionHoldsItem() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            lockManager.lockUntilTransactionEnds(1L);
+            locked.countDown();
+            awaitQuietly(release);
+            completeTransaction();
+        });
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> lockManager.lockUntilTransactionEnds(1L));
+        assertThat(ex.getMessage()).as("Сообщение должно совпадать.").contains("Предмет с ID 1");
+        assertThat(meterRegistry.counter("shareit.booking.lock.contended").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("shareit.booking.lock.timeouts").count()).isEqualTo(1);
+
+        lockManager.lockUntilTransactionEnds(2L);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        lockManager.lockUntilTransactionEnds(1L);
+        assertThat(meterRegistry.timer("shareit.booking.lock.wait").count()).as("Каждое ожидание учитывается.")
+                .isEqualTo(4);
+    }
+
+    @Test
+    void testOpposingBatchesWithCrossingStripesDoNotDeadlock() throws Exception {
+        ItemLockManager patientManager = new ItemLockManager(meterRegistry, 8, 2000);
+        // пачки [1, 15] и [7, 9] занимают полосы 1 и 7; по возрастанию id вторая шла бы 7 → 1
+        patientManager.lockUntilTransactionEnds(1L);
+        CompletableFuture<Void> opposing = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                patientManager.lockAllUntilTransactionEnds(List.of(7L, 9L));
+            } finally {
+                completeTransaction();
+            }
+        });
+        while (meterRegistry.counter("shareit.booking.lock.contended").count() == 0) {
+            Thread.sleep(10);
+        }
+
+        patientManager.lockAllUntilTransactionEnds(List.of(1L, 15L));
+
+        completeTransaction();
+        opposing.get(5, TimeUnit.SECONDS);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @Test
+    void testBatchLocksEachStripeOnce() {
+        lockManager.lockAllUntilTransactionEnds(List.of(1L, 9L, 17L, 2L));
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).as("Полосы 1 и 2 берутся по разу.")
+                .hasSize(2);
+        assertThat(meterRegistry.timer("shareit.booking.lock.wait").count()).isEqualTo(2);
+    }
+
+    @Test
+    void testLockRequiresTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThrows(IllegalStateException.class, () -> lockManager.lockUntilTransactionEnds(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void completeTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
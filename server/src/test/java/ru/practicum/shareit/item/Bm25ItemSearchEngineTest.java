@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.Bm25ItemSearchEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class Bm25ItemSearchEngineTest {
+    private Bm25ItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new Bm25ItemSearchEngine(mock(ItemRepository.class));
+    }
+
+    @Test
+    void testNameMatchOutranksDescriptionMention() {
+        engine.index(new Item(1L, "Набор инструментов", "Молоток, отвертки, ключи, пассатижи и дрель в кейсе", true));
+        engine.index(new Item(2L, "Лестница", "Алюминиевая стремянка на шесть ступеней", true));
+        engine.index(new Item(3L, "Дрель", "Ударная", true));
+        engine.index(new Item(4L, "Дрель", "Сломана", false));
+
+        assertThat(engine.search("дрель", 0, 10)).as("Совпадение в названии должно быть выше.")
+                .containsExactly(3L, 1L);
+        assertThat(engine.search("дре удар", 0, 10)).as("Слова запроса объединяются по «И».")
+                .containsExactly(3L);
+        assertThat(engine.search("пила", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void testShorterDocumentRanksHigher() {
+        engine.index(new Item(1L, "Палатка туристическая четырёхместная с тамбуром", "Палатка", true));
+        engine.index(new Item(2L, "Палатка", "Палатка", true));
+
+        assertThat(engine.search("палатка", 0, 10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testPagingIsStableForEqualScores() {
+        for (long id = 1; id <= 50; id++) {
+            engine.index(new Item(id, "Стул", "Деревянный", true));
+        }
+        engine.index(new Item(51L, "Стул стул", "Складной стул", true));
+
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < 60; from += 7) {
+            paged.addAll(engine.search("стул", from, 7));
+        }
+
+        assertThat(paged).hasSize(51).doesNotHaveDuplicates();
+        assertThat(paged.get(0)).isEqualTo(51L);
+        assertThat(paged.subList(1, 51)).isSorted();
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        engine.index(new Item(1L, "Дрель", "Простая", true));
+        engine.index(new Item(1L, "Пила", "Ручная", true));
+
+        assertThat(engine.search("дрель", 0, 10)).isEmpty();
+        assertThat(engine.search("пила", 0, 10)).containsExactly(1L);
+
+        engine.remove(1L);
+        assertThat(engine.search("пила", 0, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.FullTextItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test", "shareit.item-search.mode=fts"})
+class FullTextItemSearchEngineTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    private UserDto owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "owner@gmail.com"));
+        itemService.createItem(new ItemDto("Дрель", "Простая дрель", true, null), owner.getId());
+        itemService.createItem(new ItemDto("Отвертка", "Аккумуляторная отвертка", true, null), owner.getId());
+        itemService.createItem(new ItemDto("Дрель аккумуляторная", "Без проводов", true, null), owner.getId());
+        itemService.createItem(new ItemDto("Сломанная дрель", "Не работает", false, null), owner.getId());
+    }
+
+    @Test
+    void testFullTextModeIsSelectedByProperty() {
+        assertThat(itemSearchEngine).isInstanceOf(FullTextItemSearchEngine.class);
+    }
+
+    @Test
+    void testSearchFallsBackToLikeOnH2() {
+        assertThat(itemService.search("дрЕЛь", 0, 10)).extracting(ItemDto::getName)
+                .as("Поиск должен находить только доступные предметы.")
+                .containsExactly("Дрель", "Дрель аккумуляторная");
+        assertThat(itemService.search("аккум дрель", 0, 10)).extracting(ItemDto::getName)
+                .as("Слова запроса объединяются по «И».")
+                .containsExactly("Дрель аккумуляторная");
+        assertThat(itemService.search("дрель", 1, 10)).extracting(ItemDto::getName)
+                .containsExactly("Дрель аккумуляторная");
+    }
+}
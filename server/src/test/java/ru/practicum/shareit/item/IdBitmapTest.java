@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.IdBitmap;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdBitmapTest {
+
+    @Test
+    void testDenseBlockConvertsBothWays() {
+        IdBitmap bitmap = IdBitmap.of(LongStream.range(0, 10_000).boxed().collect(Collectors.toList()));
+
+        assertThat(bitmap.cardinality()).isEqualTo(10_000);
+        assertThat(bitmap.contains(9_999)).isTrue();
+        assertThat(bitmap.contains(10_000)).isFalse();
+
+        for (long id = 0; id < 9_000; id++) {
+            bitmap.remove(id);
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(1_000);
+        assertThat(bitmap.contains(8_999)).isFalse();
+        assertThat(bitmap.contains(9_000)).isTrue();
+    }
+
+    @Test
+    void testSetOperationsMatchHashSet() {
+        Random random = new Random(7);
+        Set<Long> left = new HashSet<>();
+        Set<Long> right = new HashSet<>();
+        for (int i = 0; i < 30_000; i++) {
+            left.add((long) random.nextInt(200_000));
+            right.add((long) random.nextInt(i % 2 == 0 ? 70_000 : 200_000));
+        }
+        IdBitmap leftBitmap = IdBitmap.of(left);
+        IdBitmap rightBitmap = IdBitmap.of(right);
+
+        Set<Long> both = new HashSet<>(left);
+        both.retainAll(right);
+        Set<Long> onlyLeft = new HashSet<>(left);
+        onlyLeft.removeAll(right);
+
+        assertThat(leftBitmap.andCardinality(rightBitmap)).isEqualTo(both.size());
+        assertThat(leftBitmap.and(rightBitmap).cardinality()).isEqualTo(both.size());
+        assertThat(leftBitmap.andNot(rightBitmap).cardinality()).isEqualTo(onlyLeft.size());
+        IdBitmap intersection = leftBitmap.and(rightBitmap);
+        for (long id = 0; id < 200_000; id++) {
+            assertThat(intersection.contains(id)).isEqualTo(both.contains(id));
+        }
+    }
+
+    @Test
+    void testEmptyBlocksAreDropped() {
+        IdBitmap bitmap = IdBitmap.of(List.of(1L, 1L << 20));
+        bitmap.remove(1L);
+        bitmap.remove(1L << 20);
+
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+}
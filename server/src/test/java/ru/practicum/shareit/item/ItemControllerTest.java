@@ -6,17 +6,29 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FacetCountsDto;
+import ru.practicum.shareit.item.dto.FacetedSearchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -24,6 +36,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class ItemControllerTest {
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImporter itemImporter;
     @Autowired
     ObjectMapper mapper;
     @Autowired
@@ -56,6 +70,24 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.description").value(itemDto.getDescription()));
     }
 
+    @Test
+    void testImportItems() throws Exception {
+        when(itemImporter.importItems(any(), anyLong())).thenReturn(List.of(
+                new ItemImportResultDto(0, 5L, null),
+                new ItemImportResultDto(1, null, "Некорректные поля: name.")));
+
+        mockMvc.perform(
+                        post("/items/bulk")
+                                .content("{\"name\":\"one\",\"description\":\"one\",\"available\":true}\n{}\n")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .header("X-Sharer-User-Id", 1L)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(5L))
+                .andExpect(jsonPath("$[1].error").value("Некорректные поля: name."));
+        verify(itemImporter).importItems(any(), eq(1L));
+    }
+
     @Test
     void testUpdateItem() throws Exception {
         when(itemService.updateItem(any(), anyLong(), anyLong())).thenReturn(itemDto);
@@ -87,15 +119,55 @@ class ItemControllerTest {
     @Test
     void testFindAllItems() throws Exception {
         List<ItemDto> items = List.of(itemDtoWithDate);
-        when(itemService.findAllItems(anyLong(), anyInt(), anyInt())).thenReturn(List.of(itemDtoWithDate));
+        when(itemService.findAllItems(anyLong(), anyInt(), anyInt()))
+                .thenReturn(new SliceImpl<>(items, PageRequest.of(0, 1), true));
         mockMvc.perform(
                         get("/items")
                                 .header("X-Sharer-User-Id", 1L)
                 )
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Has-More", "true"))
                 .andExpect(jsonPath("$.size()").value(items.size()));
     }
 
+    @Test
+    void testSearch() throws Exception {
+        when(itemService.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(itemDto), PageRequest.of(0, 20), false));
+        mockMvc.perform(get("/items/search").param("text", "item"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Has-More", "false"))
+                .andExpect(jsonPath("$[0].name").value(itemDto.getName()));
+    }
+
+    @Test
+    void testSearchFaceted() throws Exception {
+        when(itemService.searchFaceted(eq("item"), any(ItemSearchFilter.class), eq(0), eq(20)))
+                .thenReturn(new FacetedSearchDto(List.of(itemDto), false,
+                        new FacetCountsDto(1, Map.of(1L, 1L), 0, Map.of(), 0)));
+        mockMvc.perform(get("/items/search/faceted")
+                        .param("text", "item")
+                        .param("ownerId", "1")
+                        .param("availableFrom", "2100-01-01")
+                        .param("availableTo", "2100-01-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value(itemDto.getName()))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.facets.owners.1").value(1));
+        verify(itemService).searchFaceted(eq("item"), argThat(filter -> filter.getOwnerId() == 1L
+                && LocalDate.parse("2100-01-05").equals(filter.getAvailableTo())), eq(0), eq(20));
+    }
+
+    @Test
+    void testSuggest() throws Exception {
+        when(itemService.suggest("дре", 5))
+                .thenReturn(List.of(new ItemSuggestionDto(1L, "Дрель")));
+        mockMvc.perform(get("/items/suggest").param("prefix", "дре").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Дрель"));
+    }
+
     @Test
     void testCreateComment() throws Exception {
 
@@ -123,4 +195,20 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
         verify(itemService, times(1)).deleteItem(anyLong());
     }
+
+    @Test
+    void testGetAvailability() throws Exception {
+        LocalDate from = LocalDate.parse("2100-01-01");
+        LocalDate to = LocalDate.parse("2100-01-10");
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(new AvailabilityDto(from, LocalDate.parse("2100-01-03"))));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2100-01-01")
+                        .param("to", "2100-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].from").value("2100-01-01"))
+                .andExpect(jsonPath("$[0].to").value("2100-01-03"));
+        verify(itemService, times(1)).getAvailability(1L, from, to);
+    }
 }
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.StatementRecorder;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.StatementRecorder",
+        "shareit.booking-summary.roll-forward-delay=3600000",
+        "shareit.item-import.batch-size=2"})
+class ItemImporterTest {
+    @Autowired
+    private ItemImporter itemImporter;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    private UserDto owner;
+    private UserDto requestor;
+    private ItemRequestDto request;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "import-owner@gmail.com"));
+        requestor = userService.createUser(new UserDto("requestor", "import-requestor@gmail.com"));
+        request = itemRequestService.createRequest(requestor.getId(), new ItemRequestDto(null, "Нужна лодка", null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(owner.getId());
+        userService.deleteUser(requestor.getId());
+    }
+
+    @Test
+    void testImportJsonArrayReportsEveryRow() throws Exception {
+        String body = "[" +
+                "{\"name\":\"Байдарка\",\"description\":\"Двухместная\",\"available\":true}," +
+                "{\"description\":\"Без названия\",\"available\":true}," +
+                "{\"name\":\"Весло\",\"description\":\"Карбон\",\"available\":true,\"requestId\":-1}," +
+                "{\"name\":\"Насос\",\"description\":\"Ручной\",\"available\":\"может быть\"}," +
+                "null," +
+                "{\"name\":\"Лодка\",\"description\":\"Надувная\",\"available\":true,\"requestId\":" +
+                request.getId() + "}" +
+                "]";
+
+        List<ItemImportResultDto> results = itemImporter.importItems(stream(body), owner.getId());
+
+        assertThat(results).extracting(ItemImportResultDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results.get(0).getId()).as("Корректная строка должна создать предмет.").isNotNull();
+        assertThat(results.get(1).getError()).isEqualTo("Некорректные поля: name.");
+        assertThat(results.get(2).getError()).isEqualTo("Запрос с ID -1 не найден.");
+        assertThat(results.get(3).getError()).startsWith("Некорректная строка");
+        assertThat(results.get(4).getError()).startsWith("Некорректная строка");
+        assertThat(results.get(5).getError()).isNull();
+
+        ItemDto boat = itemService.getItemById(results.get(5).getId(), owner.getId());
+        assertThat(boat.getRequestId()).as("Предмет должен быть привязан к запросу.").isEqualTo(request.getId());
+        assertThat(itemService.search("байдарк", 0, 10).getContent()).extracting(ItemDto::getId)
+                .as("Импортированный предмет должен находиться поиском.").containsExactly(results.get(0).getId());
+    }
+
+    @Test
+    void testImportNdjsonLoadsRequestsOncePerBatch() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"name\":\"Палатка ").append(i).append("\",\"description\":\"Туристическая\",")
+                    .append("\"available\":true,\"requestId\":").append(request.getId()).append("}\n");
+        }
+
+        StatementRecorder.clear();
+        List<ItemImportResultDto> results = itemImporter.importItems(stream(body.toString()), owner.getId());
+
+        assertThat(results).hasSize(5).allMatch(result -> result.getId() != null && result.getError() == null);
+        assertThat(StatementRecorder.statementsFrom("requests")).as("Запросы загружаются один раз на пачку.")
+                .hasSize(3);
+        assertThat(itemService.findAllItems(owner.getId(), 0, 10).getContent()).hasSize(5);
+    }
+
+    @Test
+    void testImportStopsOnBrokenJsonAndKeepsSavedRows() throws Exception {
+        String body = "{\"name\":\"Гамак\",\"description\":\"Сетка\",\"available\":true}\n" +
+                "{\"name\":\"Котелок\",\"description\":\"Алюминий\",\"available\":true}\n" +
+                "{\"name\":\"Фонарь\",\"description\":\n";
+
+        List<ItemImportResultDto> results = itemImporter.importItems(stream(body), owner.getId());
+
+        assertThat(results).extracting(ItemImportResultDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(2).getError()).startsWith("Некорректный JSON");
+        assertThat(itemService.findAllItems(owner.getId(), 0, 10).getContent())
+                .as("Строки до ошибки должны сохраниться.").hasSize(2);
+    }
+
+    @Test
+    void testImportForUnknownUser() {
+        assertThrows(NotFoundException.class, () -> itemImporter.importItems(stream("[]"), -1L));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -39,11 +39,12 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void testSearch() {
+    void testFindAllByIdIn() {
         user = userRepository.save(user);
         item = itemRepository.save(item);
+        itemRepository.save(new Item("other", "item 2", true, user, null));
 
-        List<Item> items = itemRepository.search("item", PageRequest.of(0, 2)).toList();
-        assertThat(items).hasSize(1).as("Ошибка при поиске предметов по тексту.").contains(item);
+        List<Item> items = itemRepository.findAllByIdIn(List.of(item.getId()));
+        assertThat(items).hasSize(1).as("Ошибка при загрузке предметов по id.").contains(item);
     }
 }
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchCacheTest {
+    private MeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(meterRegistry, 2, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testHitAndMissAreCountedPerNormalizedQuery() {
+        Slice<ItemDto> result = slice("Дрель");
+        fill("  Дрель ", result);
+
+        assertThat(cache.get("дрель", 0, 10)).isSameAs(result);
+        assertThat(cache.get("дрель", 10, 10)).as("Другая страница — другой ключ.").isNull();
+        assertThat(meterRegistry.counter("shareit.item-search.cache.hits").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("shareit.item-search.cache.misses").count()).isEqualTo(2);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        fill("дрель", slice("Дрель"));
+        fill("пила", slice("Пила"));
+        cache.get("дрель", 0, 10);
+        fill("молоток", slice("Молоток"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("пила", 0, 10)).isNull();
+        assertThat(cache.get("дрель", 0, 10)).isNotNull();
+        assertThat(meterRegistry.counter("shareit.item-search.cache.evictions").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidateEvictsOnlyMatchingQueries() {
+        fill("акк дрель", slice("Дрель"));
+        fill("пила", slice("Пила"));
+
+        cache.invalidate("Дрель Аккумуляторная дрель");
+
+        assertThat(cache.get("акк дрель", 0, 10)).isNull();
+        assertThat(cache.get("пила", 0, 10)).isNotNull();
+        assertThat(meterRegistry.counter("shareit.item-search.cache.invalidations").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testExpiredEntryIsMissed() {
+        cache = new ItemSearchCache(new SimpleMeterRegistry(), 2, Duration.ZERO);
+        fill("дрель", slice("Дрель"));
+
+        assertThat(cache.get("дрель", 0, 10)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testPageFoundBeforeInvalidationIsNotCached() {
+        assertThat(cache.get("дрель", 0, 10)).isNull();
+        cache.invalidate("Пила Ручная");
+        cache.put("дрель", 0, 10, slice("Дрель"));
+
+        assertThat(cache.size()).as("Страница могла устареть после вытеснения.").isZero();
+
+        cache.put("пила", 0, 10, slice("Пила"));
+
+        assertThat(cache.size()).as("Без промаха страница не кладётся.").isZero();
+    }
+
+    private void fill(String text, Slice<ItemDto> result) {
+        cache.get(text, 0, 10);
+        cache.put(text, 0, 10, result);
+    }
+
+    private static Slice<ItemDto> slice(String name) {
+        return new SliceImpl<>(List.of(new ItemDto(name, name, true, null)), PageRequest.of(0, 10), false);
+    }
+}
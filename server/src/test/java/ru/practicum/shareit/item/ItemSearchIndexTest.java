@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        index = new ItemSearchIndex(itemRepository);
+    }
+
+    @Test
+    void testTokenize() {
+        assertThat(SearchTokenizer.tokenize("Дрель-шуруповёрт, Bosch 18V!"))
+                .as("Слова должны приводиться к нижнему регистру и разделяться по знакам препинания.")
+                .containsExactlyInAnyOrder("дрель", "шуруповерт", "bosch", "18v");
+    }
+
+    @Test
+    void testSearchByPrefixOfEveryQueryWord() {
+        index.index(new Item(1L, "Дрель", "Простая дрель", true));
+        index.index(new Item(2L, "Аккумуляторная отвертка", "Аккумулятор на 10 часов", true));
+        index.index(new Item(3L, "Дрель аккумуляторная", "Без проводов", true));
+        index.index(new Item(4L, "Дрель", "Сломана", false));
+
+        assertThat(index.search("дрЕЛь", 0, 10)).as("Поиск должен игнорировать регистр.").containsExactly(1L, 3L);
+        assertThat(index.search("аккум дрель", 0, 10)).as("Слова запроса объединяются по «И».")
+                .containsExactly(3L);
+        assertThat(index.search("дрель", 1, 10)).as("Смещение применяется к отсортированным id.")
+                .containsExactly(3L);
+        assertThat(index.search("   ", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        index.index(new Item(1L, "Дрель", "Простая дрель", true));
+        index.index(new Item(1L, "Пила", "Ручная пила", true));
+
+        assertThat(index.search("дрель", 0, 10)).as("Старые слова должны удаляться из индекса.").isEmpty();
+        assertThat(index.search("пила", 0, 10)).containsExactly(1L);
+
+        index.index(new Item(1L, "Пила", "Ручная пила", false));
+        assertThat(index.search("пила", 0, 10)).as("Недоступный предмет не должен находиться.").isEmpty();
+
+        index.index(new Item(1L, "Пила", "Ручная пила", true));
+        index.remove(1L);
+        assertThat(index.search("пила", 0, 10)).as("Удалённый предмет не должен находиться.").isEmpty();
+    }
+
+    @Test
+    void testRollbackRestoresStateBeforeTransaction() {
+        index.index(new Item(1L, "Дрель", "Простая дрель", true));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(new Item(1L, "Пила", "Ручная пила", true));
+            index.index(new Item(1L, "Молоток", "Тяжёлый", true));
+            index.index(new Item(2L, "Дрель", "Новая", true));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.search("дрель", 0, 10)).as("Откат должен вернуть индекс к прежнему виду.")
+                .containsExactly(1L);
+        assertThat(index.search("молоток", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void testRebuild() {
+        index.index(new Item(7L, "Устаревший", "Предмет", true));
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                new Item(1L, "Дрель", "Простая дрель", true),
+                new Item(2L, "Пила", "Ручная пила", false))));
+
+        index.rebuild();
+
+        assertThat(index.search("дрель", 0, 10)).containsExactly(1L);
+        assertThat(index.search("пила", 0, 10)).isEmpty();
+        assertThat(index.search("устаревший", 0, 10)).as("Перестроение должно очищать индекс.").isEmpty();
+    }
+}
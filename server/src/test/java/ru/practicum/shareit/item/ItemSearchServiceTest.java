@@ -0,0 +1,238 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.FacetedSearchDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.search.ItemFacetIndex;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Поисковый индекс обновляется только после фиксации транзакции, поэтому тесты поиска
+ * работают без общей откатываемой транзакции и удаляют свои данные сами.
+ */
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test",
+        "shareit.booking-summary.roll-forward-delay=3600000"})
+class ItemSearchServiceTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    @Autowired
+    private ItemFacetIndex itemFacetIndex;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private UserDto userDto;
+    private UserDto otherOwner;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        userDto = userService.createUser(new UserDto("user", "search-user@gmail.com"));
+        otherOwner = userService.createUser(new UserDto("owner", "search-owner@gmail.com"));
+        item = itemService.createItem(new ItemDto("item1", "item description", true, null), userDto.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(userDto.getId());
+        userService.deleteUser(otherOwner.getId());
+    }
+
+    @Test
+    void testSearch() {
+        assertEquals(1,
+                itemService.search("ite", 0, 2).getNumberOfElements(), "Поиск работает некорректно.");
+    }
+
+    @Test
+    void testSearchDetectsNextSlice() {
+        itemService.createItem(new ItemDto("item2", "item description", true, null), userDto.getId());
+
+        Slice<ItemDto> first = itemService.search("item", 0, 1);
+        Slice<ItemDto> second = itemService.search("item", 1, 1);
+
+        assertThat(first.getContent()).extracting(ItemDto::getName).containsExactly("item1");
+        assertThat(first.hasNext()).as("За первой страницей есть ещё предметы.").isTrue();
+        assertThat(second.getContent()).extracting(ItemDto::getName).containsExactly("item2");
+        assertThat(second.hasNext()).as("Вторая страница последняя.").isFalse();
+    }
+
+    @Test
+    void testSearchReflectsItemUpdates() {
+        itemService.createItem(new ItemDto("Дрель", "Аккумуляторная дрель", true, null), userDto.getId());
+
+        assertThat(itemService.search("дрЕЛь", 0, 10)).extracting(ItemDto::getName).containsExactly("Дрель");
+
+        ItemDto updatedItem = new ItemDto();
+        updatedItem.setAvailable(false);
+        itemService.updateItem(updatedItem, item.getId(), userDto.getId());
+
+        assertThat(itemService.search("item", 0, 10)).as("Недоступный предмет не должен находиться.").isEmpty();
+    }
+
+    @Test
+    void testSearchCacheEvictsOnlyMatchingQueries() {
+        ItemDto drill = itemService.createItem(new ItemDto("Дрель", "Аккумуляторная дрель", true, null),
+                userDto.getId());
+        Slice<ItemDto> items = itemService.search("item", 0, 10);
+        itemService.search("дрель", 0, 10);
+
+        ItemDto updatedDrill = new ItemDto();
+        updatedDrill.setName("Перфоратор");
+        itemService.updateItem(updatedDrill, drill.getId(), userDto.getId());
+
+        assertThat(itemService.search("дрель", 0, 10)).as("Запрос по старому названию должен быть вытеснен.")
+                .extracting(ItemDto::getName).containsExactly("Перфоратор");
+        assertThat(itemService.search("перфоратор", 0, 10)).extracting(ItemDto::getName)
+                .containsExactly("Перфоратор");
+        assertThat(itemService.search("item", 0, 10)).as("Несвязанный запрос должен остаться в кэше.")
+                .isSameAs(items);
+    }
+
+    @Test
+    void testSearchFacetedFiltersAndCounts() {
+        ItemDto other = itemService.createItem(new ItemDto("item2", "item description", true, null),
+                otherOwner.getId());
+        itemService.createItem(new ItemDto("item3", "item description", true, null), otherOwner.getId());
+        bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2100-01-02T10:00"),
+                LocalDateTime.parse("2100-01-04T10:00"), other.getId()), userDto.getId());
+
+        FacetedSearchDto byOwner = itemService.searchFaceted("item",
+                new ItemSearchFilter(otherOwner.getId(), false, null, null, null, null), 0, 1);
+
+        assertThat(byOwner.getItems()).extracting(ItemDto::getName).containsExactly("item2");
+        assertThat(byOwner.isHasMore()).isTrue();
+        assertThat(byOwner.getFacets().getTotal()).isEqualTo(2);
+        assertThat(byOwner.getFacets().getOwners()).containsExactly(Map.entry(otherOwner.getId(), 2L));
+        assertThat(byOwner.getFacets().getWithRequest()).isZero();
+
+        FacetedSearchDto available = itemService.searchFaceted("item", new ItemSearchFilter(null, null, null,
+                LocalDate.parse("2100-01-01"), LocalDate.parse("2100-01-05"), false), 0, 10);
+
+        assertThat(available.getItems()).as("Забронированный на эти дни предмет не должен находиться.")
+                .extracting(ItemDto::getName).containsExactly("item1", "item3");
+        assertThat(available.getFacets().getOwners())
+                .containsExactly(Map.entry(userDto.getId(), 1L), Map.entry(otherOwner.getId(), 1L));
+
+        assertThat(itemService.searchFaceted("item", new ItemSearchFilter(null, null, null, null, null, true), 0, 10)
+                .getItems()).isEmpty();
+    }
+
+    @Test
+    void testSuggestRanksByBookings() {
+        ItemDto drill = itemService.createItem(new ItemDto("Дрель ударная", "дрель", true, null), userDto.getId());
+        ItemDto bit = itemService.createItem(new ItemDto("Дрели сверло", "сверло", true, null), userDto.getId());
+        bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2100-01-02T10:00"),
+                LocalDateTime.parse("2100-01-04T10:00"), bit.getId()), otherOwner.getId());
+
+        assertThat(itemService.suggest("Др", 10)).as("Чаще бронируемый предмет должен быть первым.")
+                .extracting(ItemSuggestionDto::getId).containsExactly(bit.getId(), drill.getId());
+
+        ItemDto updatedBit = new ItemDto();
+        updatedBit.setAvailable(false);
+        itemService.updateItem(updatedBit, bit.getId(), userDto.getId());
+
+        assertThat(itemService.suggest("удар др", 10)).as("Подсказка строится по последнему слову.")
+                .extracting(ItemSuggestionDto::getName).containsExactly("Дрель ударная");
+        assertThat(itemService.suggest("дрели", 10)).isEmpty();
+    }
+
+    @Test
+    void testSuggestionAppearsOnlyAfterCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            itemService.createItem(new ItemDto("Рубанок", "Ручной", true, null), userDto.getId());
+            assertThat(itemService.suggest("руб", 10)).as("До фиксации подсказки быть не должно.").isEmpty();
+            status.setRollbackOnly();
+        });
+        assertThat(itemService.suggest("руб", 10)).as("Откаченный предмет не должен попасть в подсказки.")
+                .isEmpty();
+
+        ItemDto plane = itemService.createItem(new ItemDto("Рубанок", "Ручной", true, null), userDto.getId());
+        assertThat(itemService.suggest("руб", 10)).extracting(ItemSuggestionDto::getId)
+                .containsExactly(plane.getId());
+    }
+
+    @Test
+    void testItemIsIndexedOnlyAfterCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        ItemDto saw = transaction.execute(status -> {
+            ItemDto created = itemService.createItem(new ItemDto("Пила", "Ручная", true, null), userDto.getId());
+            assertThat(itemSearchEngine.search("пила", 0, 10)).as("До фиксации предмет не должен находиться.")
+                    .doesNotContain(created.getId());
+            return created;
+        });
+        assertThat(itemSearchEngine.search("пила", 0, 10)).containsExactly(saw.getId());
+
+        transaction.executeWithoutResult(status -> {
+            itemService.createItem(new ItemDto("Рубанок", "Ручной", true, null), userDto.getId());
+            status.setRollbackOnly();
+        });
+        assertThat(itemSearchEngine.search("рубанок", 0, 10)).as("Откаченный предмет не должен попасть в индекс.")
+                .isEmpty();
+    }
+
+    @Test
+    void testFacetsChangeOnlyAfterCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        ItemDto saw = transaction.execute(status -> {
+            ItemDto created = itemService.createItem(new ItemDto("Пила", "Ручная", true, null), otherOwner.getId());
+            assertThat(itemFacetIndex.count(List.of(created.getId())).getOwners())
+                    .as("До фиксации предмет не должен попасть в фасеты.").isEmpty();
+            return created;
+        });
+        assertThat(itemFacetIndex.count(List.of(saw.getId())).getOwners())
+                .containsExactly(Map.entry(otherOwner.getId(), 1L));
+
+        transaction.executeWithoutResult(status -> {
+            itemService.deleteItem(saw.getId());
+            status.setRollbackOnly();
+        });
+        assertThat(itemFacetIndex.count(List.of(saw.getId())).getOwners())
+                .as("Откаченное удаление не должно убирать предмет из фасетов.")
+                .containsExactly(Map.entry(otherOwner.getId(), 1L));
+    }
+
+    @Test
+    void testDeleteUserRemovesItemsFromIndex() {
+        UserDto leaving = userService.createUser(new UserDto("leaving", "search-leaving@gmail.com"));
+        ItemDto saw = itemService.createItem(new ItemDto("Пила", "Ручная", true, null), leaving.getId());
+
+        userService.deleteUser(leaving.getId());
+
+        assertThat(itemSearchEngine.search("пила", 0, 10)).doesNotContain(saw.getId());
+    }
+}
@@ -4,15 +4,20 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.StatementRecorder;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.UserMapper;
@@ -21,6 +26,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.transaction.Transactional;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -34,7 +40,9 @@ import static org.junit.jupiter.api.Assertions.*;
         properties = "db.name=test",
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@TestPropertySource(properties = {"db.name=test"})
+@TestPropertySource(properties = {"db.name=test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.StatementRecorder",
+        "shareit.booking-summary.roll-forward-delay=3600000"})
 class ItemServiceImplTest {
     @Autowired
     private ItemService itemService;
@@ -131,7 +139,37 @@ class ItemServiceImplTest {
         List<ItemDto> itemDtoList = new ArrayList<>();
         itemDtoList.add(itemMapper.toItemDto(item));
 
-        assertEquals(itemDtoList, itemService.findAllItems(userDto.getId(), 0, 2), "Поиск произведен некорректно.");
+        assertEquals(itemDtoList, itemService.findAllItems(userDto.getId(), 0, 2).getContent(),
+                "Поиск произведен некорректно.");
+    }
+
+    @Test
+    void testFindAllItemsWithBookingInfo() {
+        UserDto booker = userService.createUser(new UserDto("booker", "booker@gmail.com"));
+        ItemDto secondItem = itemService.createItem(new ItemDto("item2", "item description", true, null),
+                userDto.getId());
+        BookingDto last = bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("1100-09-01T01:00"),
+                LocalDateTime.parse("1200-09-01T01:00"), item.getId()), booker.getId());
+        bookingService.responseByOwner(last.getId(), userDto.getId(), true);
+        BookingDto next = bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2100-09-01T01:00"),
+                LocalDateTime.parse("2200-09-01T01:00"), item.getId()), booker.getId());
+        bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2300-09-01T01:00"),
+                LocalDateTime.parse("2400-09-01T01:00"), secondItem.getId()), booker.getId());
+
+        StatementRecorder.clear();
+        List<ItemDto> items = itemService.findAllItems(userDto.getId(), 0, 10).getContent();
+
+        assertThat(StatementRecorder.statementsFrom("bookings")).as("Брони не должны читаться при выдаче вещей.")
+                .isEmpty();
+        assertThat(StatementRecorder.statementsFrom("item_booking_summary"))
+                .as("Сводки бронирований должны загружаться одним запросом.").hasSize(1);
+        assertThat(StatementRecorder.statementsFrom("comments")).as("Отзывы должны загружаться одним запросом.")
+                .hasSize(1);
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getLastBooking().getId()).as("Последняя бронь некорректна.").isEqualTo(last.getId());
+        assertThat(items.get(0).getNextBooking().getId()).as("Следующая бронь некорректна.").isEqualTo(next.getId());
+        assertThat(items.get(1).getLastBooking()).as("Последней брони нет.").isNull();
+        assertThat(items.get(1).getNextBooking()).as("Следующая бронь некорректна.").isNotNull();
     }
 
     @Test
@@ -154,6 +192,23 @@ class ItemServiceImplTest {
         assertThat(result.getAuthorName()).as("Имя автора некорректно.").isEqualTo(authorDto.getName());
     }
 
+    @Test
+    void testGetItemByIdWithComments() {
+        UserDto author = userService.createUser(new UserDto("author", "author@gmail.com"));
+        BookingDto booking = bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("1100-09-01T01:00"),
+                LocalDateTime.parse("1200-09-01T01:00"), item.getId()), author.getId());
+        bookingService.responseByOwner(booking.getId(), userDto.getId(), true);
+        itemService.createComment(item.getId(), author.getId(), new CommentDto("first", null, null));
+        itemService.createComment(item.getId(), author.getId(), new CommentDto("second", null, null));
+
+        List<CommentDto> comments = itemService.getItemById(item.getId(), author.getId()).getComments();
+
+        assertThat(comments).extracting(CommentDto::getText).as("Отзывы некорректны.")
+                .containsExactly("first", "second");
+        assertThat(comments).extracting(CommentDto::getAuthorName).as("Имя автора некорректно.")
+                .containsOnly("author");
+    }
+
     @Test
     void testCreateCommentWithNoBooking() {
         CommentDto commentDto = new CommentDto(1L, "comment", "author", null);
@@ -166,13 +221,72 @@ class ItemServiceImplTest {
 
     @Test
     void testSearchWithBlankList() {
-        assertEquals(Collections.EMPTY_LIST, itemService.search("", 0, 2),
+        assertEquals(Collections.EMPTY_LIST, itemService.search("", 0, 2).getContent(),
                 "Список должен быть пуст.");
     }
 
     @Test
-    void testSearch() {
-        assertEquals(1,
-                itemService.search("ite", 0, 2).size(), "Поиск работает некорректно.");
+    void testFindAllItemsDoesNotCount() {
+        itemService.createItem(new ItemDto("item2", "item description", true, null), userDto.getId());
+
+        StatementRecorder.clear();
+        Slice<ItemDto> items = itemService.findAllItems(userDto.getId(), 0, 1);
+
+        assertThat(items.hasNext()).isTrue();
+        assertThat(StatementRecorder.statementsFrom("items")).as("Подсчёт предметов не нужен.")
+                .noneMatch(sql -> sql.contains("count("));
+    }
+
+    @Test
+    void testGetAvailability() {
+        UserDto booker = userService.createUser(new UserDto("booker", "booker@gmail.com"));
+        bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2100-01-02T10:00"),
+                LocalDateTime.parse("2100-01-04T10:00"), item.getId()), booker.getId());
+        BookingDto adjacent = bookingService.createBooking(new BookingCreationDto(
+                LocalDateTime.parse("2100-01-04T12:00"), LocalDateTime.parse("2100-01-06T00:00"), item.getId()),
+                booker.getId());
+        BookingDto rejected = bookingService.createBooking(new BookingCreationDto(
+                LocalDateTime.parse("2100-01-08T00:00"), LocalDateTime.parse("2100-01-09T00:00"), item.getId()),
+                booker.getId());
+        bookingService.responseByOwner(rejected.getId(), userDto.getId(), false);
+
+        LocalDate from = LocalDate.parse("2100-01-01");
+        LocalDate to = LocalDate.parse("2100-01-10");
+        assertThat(itemService.getAvailability(item.getId(), from, to)).as("Свободные дни рассчитаны некорректно.")
+                .containsExactly(new AvailabilityDto(from, from),
+                        new AvailabilityDto(LocalDate.parse("2100-01-06"), to));
+
+        bookingService.responseByOwner(adjacent.getId(), userDto.getId(), false);
+
+        assertThat(itemService.getAvailability(item.getId(), from, to))
+                .as("День, который делят две брони, должен остаться занятым.")
+                .containsExactly(new AvailabilityDto(from, from),
+                        new AvailabilityDto(LocalDate.parse("2100-01-05"), to));
+    }
+
+    @Test
+    void testGetAvailabilityWithWrongPeriod() {
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> itemService.getAvailability(item.getId(), LocalDate.parse("2100-01-10"),
+                        LocalDate.parse("2100-01-01")));
+        assertThat(ex.getMessage()).as("Сообщение должно совпадать.")
+                .contains("Дата начала периода позже даты окончания.");
+    }
+
+    @Test
+    void testSearchFacetedWithHalfOpenPeriod() {
+        ItemSearchFilter filter = new ItemSearchFilter(null, null, null, LocalDate.parse("2100-01-01"), null, null);
+
+        assertThrows(BadRequestException.class, () -> itemService.searchFaceted("item", filter, 0, 10));
+    }
+
+    @Test
+    void testSearchFacetedWithTooLongPeriod() {
+        ItemSearchFilter filter = new ItemSearchFilter(null, null, null, LocalDate.parse("2100-01-01"),
+                LocalDate.parse("2101-01-03"), null);
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> itemService.searchFaceted("item", filter, 0, 10));
+        assertThat(ex.getMessage()).isEqualTo("Период доступности длиннее 366 дней.");
     }
 }
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSuggestTrie;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSuggestTrieTest {
+    private ItemSuggestTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new ItemSuggestTrie(null, null, 3);
+    }
+
+    @Test
+    void testSuggestKeepsTopKByBookings() {
+        trie.index(new Item(1L, "Дрель", "", true));
+        trie.index(new Item(2L, "Дрель-шуруповёрт", "", true));
+        trie.index(new Item(3L, "Древний стол", "", true));
+        trie.index(new Item(4L, "Доска", "", true));
+        trie.onBooked(3L);
+        trie.onBooked(3L);
+        trie.onBooked(2L);
+
+        assertThat(ids(trie.suggest("ДР", 10))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(trie.suggest("д", 2))).containsExactly(3L, 2L);
+        assertThat(ids(trie.suggest("шуруповер", 10))).containsExactly(2L);
+        assertThat(trie.suggest("пила", 10)).isEmpty();
+    }
+
+    @Test
+    void testUpdateAndRemoveRefillTopK() {
+        trie.index(new Item(1L, "Пила", "", true));
+        trie.index(new Item(2L, "Пилка", "", true));
+        trie.index(new Item(3L, "Пилон", "", true));
+        trie.index(new Item(4L, "Пинцет", "", true));
+        trie.onBooked(1L);
+
+        trie.remove(1L);
+        trie.index(new Item(2L, "Молоток", "", true));
+
+        assertThat(ids(trie.suggest("пи", 10))).containsExactly(3L, 4L);
+        assertThat(ids(trie.suggest("мол", 10))).containsExactly(2L);
+
+        trie.index(new Item(3L, "Пилон", "", false));
+
+        assertThat(ids(trie.suggest("пи", 10))).containsExactly(4L);
+    }
+
+    @Test
+    void testSuggestMatchesBruteForce() {
+        trie = new ItemSuggestTrie(null, null, 10);
+        Random random = new Random(42);
+        String[] words = {"дрель", "дрова", "доска", "дом", "пила", "пилка", "палатка", "молоток", "мольберт"};
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Integer> bookings = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            names.put(id, name);
+            bookings.put(id, 0);
+            trie.index(new Item(id, name, "", true));
+        }
+        for (int i = 0; i < 5000; i++) {
+            long id = 1 + random.nextInt(2000);
+            bookings.merge(id, 1, Integer::sum);
+            trie.onBooked(id);
+        }
+
+        for (String prefix : List.of("д", "др", "пил", "мол", "п")) {
+            List<Long> expected = names.entrySet().stream()
+                    .filter(entry -> List.of(entry.getValue().split(" ")).stream()
+                            .anyMatch(word -> word.startsWith(prefix)))
+                    .map(Map.Entry::getKey)
+                    .sorted(Comparator.comparing((Long id) -> -bookings.get(id)).thenComparing(id -> id))
+                    .limit(10)
+                    .collect(Collectors.toList());
+            assertThat(ids(trie.suggest(prefix, 10))).as(prefix).isEqualTo(expected);
+        }
+    }
+
+    private static List<Long> ids(List<ItemSuggestionDto> suggestions) {
+        return suggestions.stream()
+                .map(ItemSuggestionDto::getId)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.CompressedPostingList;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TrigramItemSearchEngineTest {
+    private static final int CATALOGUE_SIZE = 20_000;
+    private static final String[] WORDS = {"дрель", "пила", "молоток", "отвертка", "аккумуляторная", "ручная",
+            "bosch", "makita", "лестница", "стремянка", "палатка", "велосипед", "самокат", "шуруповерт"};
+
+    private TrigramItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TrigramItemSearchEngine(mock(ItemRepository.class));
+    }
+
+    @Test
+    void testSearchKeepsSubstringSemantics() {
+        engine.index(new Item(1L, "Дрель аккумуляторная", "Шуруповёрт", true));
+        engine.index(new Item(2L, "Отвертка", "Аккумулятор на 10 часов", true));
+        engine.index(new Item(3L, "Дрель", "Сломана", false));
+
+        assertThat(engine.search("дрел", 0, 10)).as("Поиск должен находить вхождение внутри слова.")
+                .containsExactly(1L);
+        assertThat(engine.search("УМУЛЯТ", 0, 10)).containsExactly(1L, 2L);
+        assertThat(engine.search("шуруповерт", 0, 10)).as("Буква «ё» должна совпадать с «е».").containsExactly(1L);
+        assertThat(engine.search("ь акк", 0, 10)).as("Пробел — часть подстроки, как в like.").containsExactly(1L);
+        assertThat(engine.search("др", 0, 10)).as("Короткий запрос проверяется перебором.").containsExactly(1L);
+        assertThat(engine.search("умулят", 1, 10)).containsExactly(2L);
+        assertThat(engine.search("дрель отвертка", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        engine.index(new Item(1L, "Дрель", "Простая", true));
+        engine.index(new Item(1L, "Пила", "Ручная", true));
+
+        assertThat(engine.search("дрел", 0, 10)).isEmpty();
+        assertThat(engine.search("пил", 0, 10)).containsExactly(1L);
+
+        engine.remove(1L);
+        assertThat(engine.search("пил", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void testCompressedPostingList() {
+        CompressedPostingList list = new CompressedPostingList();
+        for (long id = 1; id <= 1000; id++) {
+            list.add(id * 3);
+        }
+        list.add(4L);
+        list.add(4L);
+        list.remove(6L);
+
+        assertThat(list.size()).isEqualTo(1000);
+        assertThat(list.toArray()).startsWith(3L, 4L, 9L).endsWith(3000L);
+        assertThat(list.sizeInBytes()).as("Разности соседних id должны занимать по байту.")
+                .isLessThan(1000 * Long.BYTES / 4);
+    }
+
+    @Test
+    void testCompressedPostingListMatchesTreeSet() {
+        Random random = new Random(7);
+        CompressedPostingList list = new CompressedPostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                list.remove(id);
+                expected.remove(id);
+            } else {
+                list.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertThat(list.size()).isEqualTo(expected.size());
+        assertThat(list.toArray()).as("Изменения внутри блоков не должны нарушать порядок и состав списка.")
+                .containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(42);
+        List<Item> catalogue = new ArrayList<>(CATALOGUE_SIZE);
+        for (long id = 1; id <= CATALOGUE_SIZE; id++) {
+            Item item = new Item(id, word(random) + " " + word(random) + " " + id,
+                    word(random) + " " + word(random) + " " + word(random), random.nextInt(10) > 0);
+            catalogue.add(item);
+            engine.index(item);
+        }
+
+        for (String query : new String[]{"дрел", "ушка", "bosch", "тка", "самокат 1", "ерт", "невстречается"}) {
+            assertThat(engine.search(query, 0, Integer.MAX_VALUE))
+                    .as("Результат должен совпадать с перебором для «%s».", query)
+                    .containsExactlyElementsOf(scan(catalogue, query));
+        }
+    }
+
+    private static List<Long> scan(List<Item> catalogue, String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        TreeSet<Long> ids = new TreeSet<>();
+        for (Item item : catalogue) {
+            if (item.getAvailable() && (item.getName().toLowerCase(Locale.ROOT).contains(needle)
+                    || item.getDescription().toLowerCase(Locale.ROOT).contains(needle))) {
+                ids.add(item.getId());
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
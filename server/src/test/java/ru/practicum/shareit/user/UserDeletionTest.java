@@ -0,0 +1,96 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Брони удаляемого пользователя исчезают каскадом в базе, поэтому тесты фиксируют транзакции
+ * и удаляют свои данные сами.
+ */
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"db.name=test",
+        "shareit.booking-summary.roll-forward-delay=3600000"})
+class UserDeletionTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    private UserDto owner;
+    private UserDto booker;
+    private UserDto anotherBooker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto("owner", "deletion-owner@gmail.com"));
+        booker = userService.createUser(new UserDto("booker", "deletion-booker@gmail.com"));
+        anotherBooker = userService.createUser(new UserDto("another", "deletion-another@gmail.com"));
+        item = itemService.createItem(new ItemDto("Байдарка", "Двухместная", true, null), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(owner.getId());
+        userService.deleteUser(anotherBooker.getId());
+    }
+
+    @Test
+    void testDeletedBookerNoLongerBlocksDates() {
+        LocalDateTime start = LocalDateTime.parse("2100-05-02T10:00");
+        LocalDateTime end = LocalDateTime.parse("2100-05-04T10:00");
+        bookingService.createBooking(new BookingCreationDto(start, end, item.getId()), booker.getId());
+        LocalDate from = LocalDate.parse("2100-05-01");
+        LocalDate to = LocalDate.parse("2100-05-05");
+
+        userService.deleteUser(booker.getId());
+
+        assertThat(itemService.getAvailability(item.getId(), from, to))
+                .as("Даты удалённой брони должны освободиться.").containsExactly(new AvailabilityDto(from, to));
+        assertThat(bookingService.createBooking(new BookingCreationDto(start, end, item.getId()),
+                anotherBooker.getId()).getStatus()).isEqualTo(Status.WAITING);
+    }
+
+    @Test
+    void testOwnerItemsDropDeletedBookerBookings() {
+        BookingDto last = bookingService.createBooking(new BookingCreationDto(
+                LocalDateTime.parse("2000-05-02T10:00"), LocalDateTime.parse("2000-05-04T10:00"), item.getId()),
+                booker.getId());
+        bookingService.responseByOwner(last.getId(), owner.getId(), true);
+        bookingService.createBooking(new BookingCreationDto(LocalDateTime.parse("2100-05-02T10:00"),
+                LocalDateTime.parse("2100-05-04T10:00"), item.getId()), booker.getId());
+        BookingDto later = bookingService.createBooking(new BookingCreationDto(
+                LocalDateTime.parse("2100-06-02T10:00"), LocalDateTime.parse("2100-06-04T10:00"), item.getId()),
+                anotherBooker.getId());
+
+        userService.deleteUser(booker.getId());
+
+        List<ItemDto> items = itemService.findAllItems(owner.getId(), 0, 10).getContent();
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).getLastBooking()).as("Последняя бронь удалена вместе с арендатором.").isNull();
+        assertThat(items.get(0).getNextBooking().getId()).as("Следующей должна стать бронь другого арендатора.")
+                .isEqualTo(later.getId());
+    }
+}